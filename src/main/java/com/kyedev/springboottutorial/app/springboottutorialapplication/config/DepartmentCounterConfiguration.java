@@ -0,0 +1,31 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.config;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentRepository;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentCounterTable;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentReadModel;
+import io.micrometer.common.lang.Nullable;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(DepartmentCounterProperties.class)
+public class DepartmentCounterConfiguration {
+
+    /**
+     * Follows the read model when it is enabled; otherwise refreshes from the database on a schedule.
+     */
+    @Bean(destroyMethod = "close")
+    public DepartmentCounterTable departmentCounterTable(
+            DepartmentRepository departmentRepository,
+            DepartmentCounterProperties properties,
+            @Nullable DepartmentReadModel departmentReadModel
+    ) {
+        DepartmentCounterTable counterTable = new DepartmentCounterTable(departmentRepository, departmentReadModel);
+        counterTable.load();
+        if (departmentReadModel == null) {
+            counterTable.start(properties.getRefreshInterval());
+        }
+        return counterTable;
+    }
+}
@@ -0,0 +1,15 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "department.counters")
+public class DepartmentCounterProperties {
+    /**
+     * How often the counts are rebuilt from the database when the read model is disabled.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(30);
+}
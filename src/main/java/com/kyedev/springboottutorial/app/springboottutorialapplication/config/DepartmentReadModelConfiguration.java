@@ -0,0 +1,28 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.config;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentRepository;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentReadModel;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(DepartmentReadModelProperties.class)
+public class DepartmentReadModelConfiguration {
+
+    /**
+     * Warm-starts during context refresh, so the model is loaded before the web server accepts traffic.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "department.read-model", name = "enabled", havingValue = "true")
+    public DepartmentReadModel departmentReadModel(
+            DepartmentRepository departmentRepository,
+            DepartmentReadModelProperties properties
+    ) {
+        DepartmentReadModel readModel = new DepartmentReadModel(departmentRepository, properties.getSnapshotPath());
+        readModel.warmStart();
+        readModel.start(properties.getSnapshotInterval(), properties.getReconcileInterval());
+        return readModel;
+    }
+}
@@ -0,0 +1,31 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "department.read-model")
+public class DepartmentReadModelProperties {
+    /**
+     * Serve department reads from an in-memory copy that is warm-started from a local snapshot.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Location of the binary snapshot file.
+     */
+    private Path snapshotPath = Path.of("department-read-model.snapshot");
+
+    /**
+     * How often the in-memory copy is written to the snapshot file.
+     */
+    private Duration snapshotInterval = Duration.ofSeconds(30);
+
+    /**
+     * How often change versions are compared with the database to pick up writes from other nodes.
+     */
+    private Duration reconcileInterval = Duration.ofSeconds(10);
+}
@@ -0,0 +1,37 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.config;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentRepository;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentChangeVersions;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentCounterTable;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentReadModel;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentWriteBehindBuffer;
+import io.micrometer.common.lang.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(DepartmentWriteBehindProperties.class)
+public class DepartmentWriteBehindConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "department.write-behind", name = "enabled", havingValue = "true")
+    public DepartmentWriteBehindBuffer departmentWriteBehindBuffer(
+            DepartmentRepository departmentRepository,
+            DepartmentChangeVersions changeVersions,
+            PlatformTransactionManager transactionManager,
+            DepartmentWriteBehindProperties properties,
+            DepartmentCounterTable departmentCounterTable,
+            @Nullable DepartmentReadModel departmentReadModel
+    ) {
+        DepartmentWriteBehindBuffer buffer = new DepartmentWriteBehindBuffer(
+                departmentRepository, changeVersions, transactionManager, properties.getBatchSize(), properties.getMaxPending(),
+                properties.getEnqueueTimeout());
+        // Flushed updates reach the counters like any other committed write: through the read model if enabled.
+        buffer.setFlushListener(departmentReadModel != null ? departmentReadModel::put : departmentCounterTable::record);
+        buffer.start(properties.getFlushInterval());
+        return buffer;
+    }
+}
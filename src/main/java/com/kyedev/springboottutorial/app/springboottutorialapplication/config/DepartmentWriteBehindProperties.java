@@ -0,0 +1,35 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "department.write-behind")
+public class DepartmentWriteBehindProperties {
+    /**
+     * Buffer department updates in memory and write them in batches instead of one transaction per request.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum time an accepted update stays in memory before it is written.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Number of pending departments that triggers an early flush, and the size of each write transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Upper bound of distinct departments held in memory; writers wait for the flusher once it is reached.
+     */
+    private int maxPending = 10_000;
+
+    /**
+     * How long a writer waits for room in a full buffer before its update is rejected with 503.
+     */
+    private Duration enqueueTimeout = Duration.ofSeconds(5);
+}
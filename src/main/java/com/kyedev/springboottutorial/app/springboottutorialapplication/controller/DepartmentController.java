@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping(value = "/departments")
@@ -40,6 +41,25 @@ public class DepartmentController {
         return departmentService.getDepartments(name, code, address);
     }
 
+    @GetMapping(value = "/count")
+    public long countDepartments(
+        @Nullable String name,
+        @Nullable String code,
+        @Nullable String address
+    ) {
+        return departmentService.countDepartments(name, code, address);
+    }
+
+    @GetMapping(value = "/count/by-code")
+    public Map<String, Long> countDepartmentsByCode() {
+        return departmentService.countDepartmentsByCode();
+    }
+
+    @GetMapping(value = "/count/by-address-prefix")
+    public Map<String, Long> countDepartmentsByAddressPrefix() {
+        return departmentService.countDepartmentsByAddressPrefix();
+    }
+
     @GetMapping(value = "/{departmentId}")
     public Department getDepartmentById(@PathVariable("departmentId") Long departmentId) throws DepartmentNotFoundException {
         return departmentService.getDepartmentById(departmentId);
@@ -1,12 +1,14 @@
 package com.kyedev.springboottutorial.app.springboottutorialapplication.entity;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 import org.springframework.validation.annotation.Validated;
 
 @Entity
+@Table(indexes = @Index(name = "idx_department_change_version", columnList = "changeVersion"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,6 +24,14 @@ public class Department {
     private String departmentAddress;
     private String departmentCode;
 
+    /**
+     * Set from {@code DepartmentChangeVersions} on every insert and update; versions are unique and
+     * committed in increasing order, so in-memory copies can fetch just the rows changed since the
+     * highest version they have seen. {@code null} (read as 0) on rows written before versioning.
+     */
+    @JsonIgnore
+    private Long changeVersion;
+
     @Override
     public String toString() {
         return "Department{" +
@@ -0,0 +1,21 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.entity;
+
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+/**
+ * Single row holding the last {@link Department#getChangeVersion() change version} handed out.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DepartmentChangeCounter {
+    @Id
+    private Long id;
+
+    private Long lastVersion;
+}
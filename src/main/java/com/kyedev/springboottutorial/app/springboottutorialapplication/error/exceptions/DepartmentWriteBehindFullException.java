@@ -0,0 +1,7 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.error.exceptions;
+
+public class DepartmentWriteBehindFullException extends RuntimeException {
+    public DepartmentWriteBehindFullException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.kyedev.springboottutorial.app.springboottutorialapplication.error.ha
 
 import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.ExceptionMessage;
 import com.kyedev.springboottutorial.app.springboottutorialapplication.error.exceptions.DepartmentNotFoundException;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.error.exceptions.DepartmentWriteBehindFullException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -21,4 +22,10 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
         ExceptionMessage exceptionMessage = new ExceptionMessage(HttpStatus.NOT_FOUND, exception.getMessage());
         return  ResponseEntity.status(HttpStatus.NOT_FOUND).body(exceptionMessage);
     }
+
+    @ExceptionHandler(DepartmentWriteBehindFullException.class)
+    public ResponseEntity<ExceptionMessage> departmentWriteBehindFullException(DepartmentWriteBehindFullException exception, WebRequest request) {
+        ExceptionMessage exceptionMessage = new ExceptionMessage(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(exceptionMessage);
+    }
 }
@@ -0,0 +1,22 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.repository;
+
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.DepartmentChangeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DepartmentChangeCounterRepository extends JpaRepository<DepartmentChangeCounter, Long> {
+
+    @Modifying
+    @Query("update DepartmentChangeCounter c set c.lastVersion = c.lastVersion + 1 where c.id = :id")
+    int increment(Long id);
+
+    @Query("select c.lastVersion from DepartmentChangeCounter c where c.id = :id")
+    long findLastVersion(Long id);
+
+    @Query("select coalesce(max(d.changeVersion), 0) from Department d")
+    long findMaxDepartmentVersion();
+}
@@ -0,0 +1,9 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.repository;
+
+public interface DepartmentGroupKeys {
+    Long getDepartmentId();
+
+    String getDepartmentCode();
+
+    String getDepartmentAddress();
+}
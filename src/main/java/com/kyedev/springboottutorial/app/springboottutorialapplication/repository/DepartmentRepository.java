@@ -4,9 +4,20 @@ package com.kyedev.springboottutorial.app.springboottutorialapplication.reposito
 import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.Department;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long>, JpaSpecificationExecutor<Department> {
 
+    List<Department> findByChangeVersionGreaterThan(Long changeVersion);
+
+    @Query("select d.departmentId from Department d")
+    List<Long> findAllIds();
+
+    @Query("select d.departmentId as departmentId, d.departmentCode as departmentCode, "
+            + "d.departmentAddress as departmentAddress from Department d")
+    List<DepartmentGroupKeys> findAllGroupKeys();
 }
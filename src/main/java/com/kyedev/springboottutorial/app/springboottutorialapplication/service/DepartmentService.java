@@ -5,6 +5,7 @@ import com.kyedev.springboottutorial.app.springboottutorialapplication.error.exc
 import jakarta.annotation.Nullable;
 
 import java.util.List;
+import java.util.Map;
 
 public interface DepartmentService {
     Department saveDepartment(Department department);
@@ -20,4 +21,14 @@ public interface DepartmentService {
     void deleteDepartmentById(Long departmentId);
 
     Department updateDepartment(Long departmentId, Department department);
+
+    long countDepartments(
+        @Nullable String name,
+        @Nullable String code,
+        @Nullable String address
+    );
+
+    Map<String, Long> countDepartmentsByCode();
+
+    Map<String, Long> countDepartmentsByAddressPrefix();
 }
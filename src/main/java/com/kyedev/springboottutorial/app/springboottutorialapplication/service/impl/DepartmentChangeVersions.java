@@ -0,0 +1,68 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.DepartmentChangeCounter;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentChangeCounterRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out department change versions from a single counter row.
+ * <p>
+ * {@link #next()} increments the row inside the caller's transaction and the row lock is held until
+ * that transaction ends, so versions become visible in commit order: once version {@code n} is
+ * committed, no transaction can still commit a version below it. Readers can therefore ask for
+ * {@code change_version > n} and never miss a write. The price is that write transactions touching
+ * departments are serialized on the counter row.
+ * <p>
+ * The version is assigned in memory and written as a plain column, so updates stay JDBC-batched and
+ * nothing is read back after the write. A whole write-behind batch shares one version.
+ */
+@Component
+public class DepartmentChangeVersions {
+    private static final Long COUNTER_ID = 1L;
+
+    private final DepartmentChangeCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public DepartmentChangeVersions(
+            DepartmentChangeCounterRepository counterRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.counterRepository = counterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Creates the counter row on first start, continuing from the highest version already stored.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!counterRepository.existsById(COUNTER_ID)) {
+                    counterRepository.saveAndFlush(new DepartmentChangeCounter(
+                            COUNTER_ID, counterRepository.findMaxDepartmentVersion()));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the row first.
+        }
+    }
+
+    /**
+     * Returns a new version for the current transaction. Call it before touching any department row,
+     * so every writer takes the counter lock first and writers cannot deadlock on each other.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next() {
+        counterRepository.increment(COUNTER_ID);
+        return counterRepository.findLastVersion(COUNTER_ID);
+    }
+}
@@ -0,0 +1,192 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.Department;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentGroupKeys;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentRepository;
+import io.micrometer.common.lang.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory department counts of committed departments, serving the unfiltered and grouped counts.
+ * Entries are keyed by {@code departmentId}, so recording the same department twice or removing an
+ * unknown one leaves the counts unchanged.
+ * <p>
+ * When the {@link DepartmentReadModel} is enabled the table is seeded from it and only follows its
+ * changes, so writes from other nodes are counted at the next reconcile. Otherwise
+ * {@link DepartmentServiceImpl} records committed writes, and the table is rebuilt from the database
+ * every {@code refreshInterval} to pick up writes from other nodes and correct any drift.
+ * <p>
+ * Group keys are lower-cased, like the case-insensitive {@code code} filter of
+ * {@code countDepartments}, so {@code "IT001"} and {@code "it001"} are one group reported as
+ * {@code "it001"}. Departments without a code or address are included in {@link #total()} but not
+ * in the corresponding breakdown.
+ */
+public class DepartmentCounterTable implements DepartmentReadModel.Listener, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentCounterTable.class);
+
+    private final DepartmentRepository departmentRepository;
+    private final DepartmentReadModel departmentReadModel;
+
+    // guarded by this
+    private final Map<Long, Entry> departments = new HashMap<>();
+    private final Map<String, Long> byCode = new HashMap<>();
+    private final Map<String, Long> byAddressPrefix = new HashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public DepartmentCounterTable(
+            DepartmentRepository departmentRepository,
+            @Nullable DepartmentReadModel departmentReadModel
+    ) {
+        this.departmentRepository = departmentRepository;
+        this.departmentReadModel = departmentReadModel;
+    }
+
+    public void load() {
+        if (departmentReadModel == null) {
+            refresh();
+            return;
+        }
+        synchronized (this) {
+            clear();
+            // Listen before seeding; changes racing with the seed wait for this lock and are applied after it.
+            departmentReadModel.addListener(this);
+            departmentReadModel.findAll().forEach(this::record);
+        }
+    }
+
+    /**
+     * Rebuilds the counts from the code and address of every department. A local write that commits
+     * while the query runs may be missed until the next refresh.
+     */
+    public void refresh() {
+        List<DepartmentGroupKeys> rows = departmentRepository.findAllGroupKeys();
+        synchronized (this) {
+            clear();
+            rows.forEach(row -> record(row.getDepartmentId(), row.getDepartmentCode(), row.getDepartmentAddress()));
+        }
+    }
+
+    public void start(Duration refreshInterval) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "department-counters");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly,
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void departmentChanged(Department department) {
+        record(department);
+    }
+
+    @Override
+    public void departmentRemoved(Long departmentId) {
+        remove(departmentId);
+    }
+
+    public void record(Department department) {
+        record(department.getDepartmentId(), department.getDepartmentCode(), department.getDepartmentAddress());
+    }
+
+    private synchronized void record(Long departmentId, String code, String address) {
+        Entry entry = new Entry(normalize(code), normalize(addressPrefix(address)));
+        Entry previous = departments.put(departmentId, entry);
+        if (previous != null) {
+            decrement(byCode, previous.code());
+            decrement(byAddressPrefix, previous.addressPrefix());
+        }
+        increment(byCode, entry.code());
+        increment(byAddressPrefix, entry.addressPrefix());
+    }
+
+    public synchronized void remove(Long departmentId) {
+        Entry previous = departments.remove(departmentId);
+        if (previous != null) {
+            decrement(byCode, previous.code());
+            decrement(byAddressPrefix, previous.addressPrefix());
+        }
+    }
+
+    public synchronized long total() {
+        return departments.size();
+    }
+
+    public synchronized Map<String, Long> countByCode() {
+        return new TreeMap<>(byCode);
+    }
+
+    public synchronized Map<String, Long> countByAddressPrefix() {
+        return new TreeMap<>(byAddressPrefix);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to refresh department counters", e);
+        }
+    }
+
+    private void clear() {
+        departments.clear();
+        byCode.clear();
+        byAddressPrefix.clear();
+    }
+
+    /**
+     * The part of an address before its first comma, e.g. {@code "Building A"} for
+     * {@code "Building A, Floor 3"}.
+     */
+    static String addressPrefix(String address) {
+        if (address == null) {
+            return null;
+        }
+        int comma = address.indexOf(',');
+        return (comma < 0 ? address : address.substring(0, comma)).trim();
+    }
+
+    private static String normalize(String key) {
+        return key == null ? null : key.toLowerCase(Locale.ROOT);
+    }
+
+    private static void increment(Map<String, Long> counts, String key) {
+        if (key != null && !key.isBlank()) {
+            counts.merge(key, 1L, Long::sum);
+        }
+    }
+
+    private static void decrement(Map<String, Long> counts, String key) {
+        if (key != null && !key.isBlank()) {
+            counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private record Entry(String code, String addressPrefix) {
+    }
+}
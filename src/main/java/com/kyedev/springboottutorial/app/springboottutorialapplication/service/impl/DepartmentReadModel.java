@@ -0,0 +1,262 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.Department;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory copy of all departments that serves {@code getDepartmentById} and unfiltered
+ * {@code getDepartments} without touching the database.
+ * <p>
+ * On startup the model is loaded from a {@link DepartmentSnapshot}, or from the database if there
+ * is none, and then kept up to date by reconciling. Change versions are committed in increasing
+ * order (see {@link DepartmentChangeVersions}), so a reconcile only fetches the departments with a
+ * version above the highest one it has seen. Deletes leave no version behind: the model compares
+ * its size with a row count and scans ids only when they differ. A delete that races with an insert
+ * can keep the counts equal for one round; it is dropped at the next reconcile.
+ * <p>
+ * Local writes update the model after they commit. Writes made by other nodes show up at the
+ * next reconcile, so they can be stale for at most {@code reconcileInterval}.
+ * <p>
+ * {@link #put} never replaces a department with an older version, and never brings back one that
+ * was {@link #remove removed} during the last two reconciles, so a late write from a read that
+ * started before an update or a delete cannot undo it.
+ * <p>
+ * Every change to the model, including those found by a reconcile, is reported to the registered
+ * {@link Listener}s. Changes loaded from the snapshot are not; listeners read {@link #findAll()} instead.
+ */
+public class DepartmentReadModel implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentReadModel.class);
+    private static final int FETCH_BATCH_SIZE = 1000;
+
+    private final DepartmentRepository departmentRepository;
+    private final Path snapshotPath;
+    private final Map<Long, Department> departments = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Removed departmentId -> reconcile generation it was removed in; guarded by this
+    private final Map<Long, Long> tombstones = new HashMap<>();
+    // Only written by reconcile, which runs on one thread at a time
+    private volatile long reconciledVersion;
+    private volatile long generation;
+
+    private ScheduledExecutorService scheduler;
+
+    public DepartmentReadModel(DepartmentRepository departmentRepository, Path snapshotPath) {
+        this.departmentRepository = departmentRepository;
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Notified after a department is added to, changed in or removed from the model.
+     * Called on the thread that made the change and may be called more than once for the same state.
+     */
+    public interface Listener {
+        void departmentChanged(Department department);
+
+        void departmentRemoved(Long departmentId);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    /**
+     * Loads the snapshot and reconciles it with the database, or loads every department from the
+     * database if there is no usable snapshot.
+     */
+    public void warmStart() {
+        if (Files.exists(snapshotPath)) {
+            try {
+                DepartmentSnapshot snapshot = DepartmentSnapshot.read(snapshotPath);
+                snapshot.getDepartments().forEach(department ->
+                        departments.put(department.getDepartmentId(), department));
+                reconciledVersion = snapshot.getChangeVersion();
+                logger.info("Loaded {} departments from snapshot {}", departments.size(), snapshotPath);
+                reconcile();
+                return;
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable department snapshot {}", snapshotPath, e);
+                departments.clear();
+            }
+        }
+        // A single query sees every version below the highest one it returns, since they commit in order.
+        List<Department> loaded = departmentRepository.findAll();
+        loaded.forEach(this::put);
+        reconciledVersion = highestChangeVersion(loaded, 0L);
+        logger.info("Loaded {} departments from the database", departments.size());
+    }
+
+    public void start(Duration snapshotInterval, Duration reconcileInterval) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "department-read-model");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly,
+                reconcileInterval.toMillis(), reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::writeSnapshotQuietly,
+                snapshotInterval.toMillis(), snapshotInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Fetches the departments changed since the last reconcile and drops the ones deleted since.
+     */
+    public void reconcile() {
+        pruneTombstones(++generation);
+
+        List<Department> changed = departmentRepository.findByChangeVersionGreaterThan(reconciledVersion);
+        changed.forEach(this::put);
+        reconciledVersion = highestChangeVersion(changed, reconciledVersion);
+
+        int removed = 0;
+        int fetched = 0;
+        if (departmentRepository.count() != departments.size()) {
+            // Departments added after the id query are not in its result and must be kept.
+            Set<Long> knownIds = new HashSet<>(departments.keySet());
+            Set<Long> liveIds = new HashSet<>(departmentRepository.findAllIds());
+
+            List<Long> missingIds = new ArrayList<>();
+            for (Long liveId : liveIds) {
+                if (!knownIds.remove(liveId)) {
+                    missingIds.add(liveId);
+                }
+            }
+            knownIds.forEach(this::remove);
+            removed = knownIds.size();
+
+            for (int from = 0; from < missingIds.size(); from += FETCH_BATCH_SIZE) {
+                List<Long> batch = missingIds.subList(from, Math.min(from + FETCH_BATCH_SIZE, missingIds.size()));
+                departmentRepository.findAllById(batch).forEach(this::put);
+            }
+            fetched = missingIds.size();
+        }
+
+        if (!changed.isEmpty() || removed > 0 || fetched > 0) {
+            logger.info("Reconciled department read model up to version {}: {} changed, {} removed, {} fetched, {} total",
+                    reconciledVersion, changed.size(), removed, fetched, departments.size());
+        }
+    }
+
+    public Optional<Department> find(Long departmentId) {
+        return Optional.ofNullable(departments.get(departmentId)).map(DepartmentReadModel::copyOf);
+    }
+
+    public List<Department> findAll() {
+        return departments.values().stream()
+                .sorted(Comparator.comparing(Department::getDepartmentId))
+                .map(DepartmentReadModel::copyOf)
+                .toList();
+    }
+
+    /**
+     * Adds or replaces {@code department}, unless the model already has a newer version of it or
+     * it was removed recently.
+     */
+    public synchronized void put(Department department) {
+        Long departmentId = department.getDepartmentId();
+        Department cached = departments.get(departmentId);
+        if (tombstones.containsKey(departmentId)
+                || (cached != null && changeVersion(department) < changeVersion(cached))) {
+            return;
+        }
+        Department copy = copyOf(department);
+        departments.put(departmentId, copy);
+        listeners.forEach(listener -> listener.departmentChanged(copyOf(copy)));
+    }
+
+    public synchronized void remove(Long departmentId) {
+        tombstones.put(departmentId, generation);
+        if (departments.remove(departmentId) != null) {
+            listeners.forEach(listener -> listener.departmentRemoved(departmentId));
+        }
+    }
+
+    public int size() {
+        return departments.size();
+    }
+
+    public void writeSnapshot() throws IOException {
+        // Read the version first: the departments copied after it are complete up to it.
+        long snapshotVersion = reconciledVersion;
+        List<Department> snapshot = List.copyOf(departments.values());
+        DepartmentSnapshot.write(snapshotPath, snapshotVersion, snapshot);
+        logger.debug("Wrote {} departments to snapshot {}", snapshot.size(), snapshotPath);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writeSnapshotQuietly();
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to reconcile department read model", e);
+        }
+    }
+
+    private void writeSnapshotQuietly() {
+        try {
+            writeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write department snapshot {}", snapshotPath, e);
+        }
+    }
+
+    /**
+     * Forgets departments removed before the previous reconcile; any read that started before
+     * such a delete has finished by now.
+     */
+    private synchronized void pruneTombstones(long currentGeneration) {
+        tombstones.values().removeIf(removedIn -> removedIn < currentGeneration - 1);
+    }
+
+    private static long highestChangeVersion(List<Department> departments, long atLeast) {
+        return departments.stream()
+                .mapToLong(DepartmentReadModel::changeVersion)
+                .reduce(atLeast, Math::max);
+    }
+
+    private static long changeVersion(Department department) {
+        return department.getChangeVersion() == null ? 0L : department.getChangeVersion();
+    }
+
+    private static Department copyOf(Department department) {
+        return Department.builder()
+                .departmentId(department.getDepartmentId())
+                .departmentName(department.getDepartmentName())
+                .departmentCode(department.getDepartmentCode())
+                .departmentAddress(department.getDepartmentAddress())
+                .changeVersion(department.getChangeVersion())
+                .build();
+    }
+}
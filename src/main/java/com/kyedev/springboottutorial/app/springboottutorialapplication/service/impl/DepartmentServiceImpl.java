@@ -11,42 +11,209 @@ import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class DepartmentServiceImpl implements DepartmentService {
     private final DepartmentRepository departmentRepository;
+    private final DepartmentCounterTable departmentCounterTable;
+    private final DepartmentChangeVersions changeVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final DepartmentWriteBehindBuffer writeBehindBuffer;
+    private final DepartmentReadModel departmentReadModel;
 
     @Autowired
-    public DepartmentServiceImpl(DepartmentRepository departmentRepository) {
+    public DepartmentServiceImpl(
+            DepartmentRepository departmentRepository,
+            DepartmentCounterTable departmentCounterTable,
+            DepartmentChangeVersions changeVersions,
+            PlatformTransactionManager transactionManager,
+            @Nullable DepartmentWriteBehindBuffer writeBehindBuffer,
+            @Nullable DepartmentReadModel departmentReadModel
+    ) {
         this.departmentRepository = departmentRepository;
+        this.departmentCounterTable = departmentCounterTable;
+        this.changeVersions = changeVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.departmentReadModel = departmentReadModel;
     }
 
     @Override
     public Department saveDepartment(Department department) {
-        return departmentRepository.save(department);
+        department.setChangeVersion(changeVersions.next());
+        Department savedDepartment = departmentRepository.save(department);
+        afterCommit(() -> recordCommitted(savedDepartment));
+        return savedDepartment;
     }
 
+    /**
+     * Like {@link #getDepartmentById}, serves read-model hits without acquiring a connection;
+     * only a fall-through to the repository starts a (read-only) transaction.
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Department> getDepartments(
             @Nullable String name,
             @Nullable String code,
             @Nullable String address
     ) {
-        if ((name == null || name.trim().isEmpty()) &&
-                (code == null || code.trim().isEmpty()) &&
-                (address == null || address.trim().isEmpty())) {
-            return departmentRepository.findAll();
+        if (hasNoFilters(name, code, address)) {
+            if (departmentReadModel != null) {
+                return withPendingChanges(departmentReadModel.findAll());
+            }
+            return withPendingChanges(departmentRepository.findAll());
+        }
+
+        return withPendingChanges(departmentRepository.findAll(filterSpecification(name, code, address)), name, code, address);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Department getDepartmentById(Long departmentId) throws DepartmentNotFoundException {
+        if (departmentReadModel != null) {
+            Optional<Department> cachedDepartment = departmentReadModel.find(departmentId);
+            if (cachedDepartment.isPresent()) {
+                return withPendingChanges(cachedDepartment.get());
+            }
+        }
+        Optional<Department> optionalDepartment = departmentRepository.findById(departmentId);
+        if(optionalDepartment.isEmpty()) {
+            throw new DepartmentNotFoundException("Department with id " + departmentId + " not found");
+        }
+        if (departmentReadModel != null) {
+            departmentReadModel.put(optionalDepartment.get());
+        }
+        return withPendingChanges(optionalDepartment.get());
+    }
+
+    @Override
+    public void deleteDepartmentById(Long departmentId) {
+        if (!departmentRepository.existsById(departmentId)) {
+            throw new EntityNotFoundException(
+                    "Department not found with id: " + departmentId);
+        }
+        departmentRepository.deleteById(departmentId);
+        afterCommit(() -> {
+            // Discarding only after commit keeps buffered updates if the delete rolls back.
+            if (writeBehindBuffer != null) {
+                writeBehindBuffer.discard(departmentId);
+            }
+            removeCommitted(departmentId);
+        });
+    }
+
+    /**
+     * With write-behind enabled the update is only buffered, outside any transaction: the department
+     * is looked up in the read model, or with a single read when there is none. Like the filtered count,
+     * the counters only see it once it is flushed. Otherwise the update is written in one transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Department updateDepartment(Long departmentId, Department department) {
+        if (writeBehindBuffer != null) {
+            Department currentDepartment = Optional.ofNullable(departmentReadModel)
+                    .flatMap(readModel -> readModel.find(departmentId))
+                    .or(() -> departmentRepository.findById(departmentId))
+                    .orElseThrow(() -> new EntityNotFoundException(
+                            "Department not found with id: " + departmentId));
+            writeBehindBuffer.enqueue(departmentId, department);
+            return withPendingChanges(currentDepartment);
+        }
+
+        return transactionTemplate.execute(status -> {
+            long changeVersion = changeVersions.next();
+            Department existingDepartment = departmentRepository.findById(departmentId)
+                    .orElseThrow(() -> new EntityNotFoundException(
+                            "Department not found with id: " + departmentId));
+            applyChanges(existingDepartment, department);
+            existingDepartment.setChangeVersion(changeVersion);
+            Department savedDepartment = departmentRepository.save(existingDepartment);
+            afterCommit(() -> recordCommitted(savedDepartment));
+            return savedDepartment;
+        });
+    }
+
+    /**
+     * The total comes from {@link DepartmentCounterTable} and a filtered count from a query, so this
+     * runs without a transaction of its own and the query opens a read-only one in the repository.
+     * Both count committed departments only; buffered write-behind updates are counted once flushed.
+     * The total can lag writes from other nodes by up to the counter refresh or read-model reconcile
+     * interval, while the filtered count is always current.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long countDepartments(
+            @Nullable String name,
+            @Nullable String code,
+            @Nullable String address
+    ) {
+        if (hasNoFilters(name, code, address)) {
+            return departmentCounterTable.total();
+        }
+        return departmentRepository.count(filterSpecification(name, code, address));
+    }
+
+    /**
+     * Served from {@link DepartmentCounterTable}, like the unfiltered {@link #countDepartments}.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<String, Long> countDepartmentsByCode() {
+        return departmentCounterTable.countByCode();
+    }
+
+    /**
+     * Served from {@link DepartmentCounterTable}, like the unfiltered {@link #countDepartments}.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<String, Long> countDepartmentsByAddressPrefix() {
+        return departmentCounterTable.countByAddressPrefix();
+    }
+
+    /**
+     * With the read model enabled the counter table follows it, so both apply the same version checks.
+     */
+    private void recordCommitted(Department department) {
+        if (departmentReadModel != null) {
+            departmentReadModel.put(department);
+        } else {
+            departmentCounterTable.record(department);
+        }
+    }
+
+    private void removeCommitted(Long departmentId) {
+        if (departmentReadModel != null) {
+            departmentReadModel.remove(departmentId);
+        } else {
+            departmentCounterTable.remove(departmentId);
         }
+    }
+
+    private static boolean hasNoFilters(String name, String code, String address) {
+        return (name == null || name.trim().isEmpty()) &&
+                (code == null || code.trim().isEmpty()) &&
+                (address == null || address.trim().isEmpty());
+    }
 
-        Specification<Department> spec = (root, criteriaQuery, criteriaBuilder) -> {
+    private static Specification<Department> filterSpecification(String name, String code, String address) {
+        return (root, criteriaQuery, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (name != null && !name.trim().isEmpty()) {
@@ -72,49 +239,128 @@ public class DepartmentServiceImpl implements DepartmentService {
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
-
-        return departmentRepository.findAll(spec);
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public Department getDepartmentById(Long departmentId) throws DepartmentNotFoundException {
-        Optional<Department> optionalDepartment = departmentRepository.findById(departmentId);
-        if(optionalDepartment.isEmpty()) {
-            throw new DepartmentNotFoundException("Department with id " + departmentId + " not found");
+    /**
+     * Runs {@code action} once the current transaction commits, so a rolled back write never
+     * reaches the in-memory counters. Runs immediately when no transaction is active.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
-        return optionalDepartment.get();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
-    @Override
-    public void deleteDepartmentById(Long departmentId) {
-        if (!departmentRepository.existsById(departmentId)) {
-            throw new EntityNotFoundException(
-                    "Department not found with id: " + departmentId);
-        }
-        departmentRepository.deleteById(departmentId);
-    }
-
-    @Override
-    public Department updateDepartment(Long departmentId, Department department) {
-        Department existingDepartment = departmentRepository.findById(departmentId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Department not found with id: " + departmentId));
-
-        String newDepartmentName = department.getDepartmentName();
-        String newDepartmentCode = department.getDepartmentCode();
-        String newDepartmentAddress = department.getDepartmentAddress();
+    /**
+     * Copies the non-blank fields of {@code changes} onto {@code target}.
+     */
+    static void applyChanges(Department target, Department changes) {
+        String newDepartmentName = changes.getDepartmentName();
+        String newDepartmentCode = changes.getDepartmentCode();
+        String newDepartmentAddress = changes.getDepartmentAddress();
 
         if (Objects.nonNull(newDepartmentName) && !newDepartmentName.trim().isEmpty()) {
-            existingDepartment.setDepartmentName(newDepartmentName);
+            target.setDepartmentName(newDepartmentName);
         }
         if (Objects.nonNull(newDepartmentCode) && !newDepartmentCode.trim().isEmpty()) {
-            existingDepartment.setDepartmentCode(newDepartmentCode);
+            target.setDepartmentCode(newDepartmentCode);
         }
         if (Objects.nonNull(newDepartmentAddress) && !newDepartmentAddress.trim().isEmpty()) {
-            existingDepartment.setDepartmentAddress(newDepartmentAddress);
+            target.setDepartmentAddress(newDepartmentAddress);
+        }
+    }
+
+    private List<Department> withPendingChanges(List<Department> departments) {
+        if (writeBehindBuffer == null || !writeBehindBuffer.hasPendingChanges()) {
+            return departments;
         }
+        return departments.stream()
+                .map(this::withPendingChanges)
+                .toList();
+    }
+
+    /**
+     * Applies buffered changes to a filtered result. The database filtered the committed values, so rows
+     * whose buffered changes no longer match are dropped and buffered rows that now match are added.
+     */
+    private List<Department> withPendingChanges(List<Department> matching, String name, String code, String address) {
+        if (writeBehindBuffer == null || !writeBehindBuffer.hasPendingChanges()) {
+            return matching;
+        }
+        Map<Long, Department> pendingChanges = writeBehindBuffer.pendingChanges();
+        Set<Long> matchingIds = matching.stream().map(Department::getDepartmentId).collect(Collectors.toSet());
+        // A row outside the result can only match now if its buffered changes touch a filtered field.
+        List<Long> candidateIds = pendingChanges.entrySet().stream()
+                .filter(entry -> !matchingIds.contains(entry.getKey()))
+                .filter(entry -> changesFilteredField(entry.getValue(), name, code, address))
+                .map(Map.Entry::getKey)
+                .toList();
+
+        List<Department> candidates = new ArrayList<>(matching);
+        if (!candidateIds.isEmpty()) {
+            candidates.addAll(departmentRepository.findAllById(candidateIds));
+        }
+        return candidates.stream()
+                .map(department -> Optional.ofNullable(pendingChanges.get(department.getDepartmentId()))
+                        .map(changes -> withPendingChanges(department, changes))
+                        .orElse(department))
+                .filter(department -> matchesFilters(department, name, code, address))
+                .sorted(Comparator.comparing(Department::getDepartmentId))
+                .toList();
+    }
+
+    /**
+     * In-memory counterpart of {@link #filterSpecification}.
+     */
+    private static boolean matchesFilters(Department department, String name, String code, String address) {
+        return (isBlank(name) || containsIgnoreCase(department.getDepartmentName(), name)) &&
+                (isBlank(code) || (department.getDepartmentCode() != null
+                        && department.getDepartmentCode().toLowerCase().equals(code.toLowerCase()))) &&
+                (isBlank(address) || containsIgnoreCase(department.getDepartmentAddress(), address));
+    }
+
+    private static boolean changesFilteredField(Department changes, String name, String code, String address) {
+        return (!isBlank(name) && !isBlank(changes.getDepartmentName())) ||
+                (!isBlank(code) && !isBlank(changes.getDepartmentCode())) ||
+                (!isBlank(address) && !isBlank(changes.getDepartmentAddress()));
+    }
+
+    private static boolean containsIgnoreCase(String value, String part) {
+        return value != null && value.toLowerCase().contains(part.toLowerCase());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private Department withPendingChanges(Department department) {
+        if (writeBehindBuffer == null) {
+            return department;
+        }
+        return writeBehindBuffer.pendingChanges(department.getDepartmentId())
+                .map(changes -> withPendingChanges(department, changes))
+                .orElse(department);
+    }
 
-        return departmentRepository.save(existingDepartment);
+    /**
+     * Returns a detached copy of {@code department} with buffered {@code changes} applied,
+     * so the managed entity is never modified outside a flush.
+     */
+    private static Department withPendingChanges(Department department, Department changes) {
+        Department view = Department.builder()
+                .departmentId(department.getDepartmentId())
+                .departmentName(department.getDepartmentName())
+                .departmentCode(department.getDepartmentCode())
+                .departmentAddress(department.getDepartmentAddress())
+                .build();
+        applyChanges(view, changes);
+        return view;
     }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.Department;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary snapshot of departments, written and read through a memory-mapped file.
+ * <p>
+ * Layout (big-endian): {@code magic:int, formatVersion:int, changeVersion:long, count:int}, where
+ * {@code changeVersion} is the highest version the departments are complete up to, then per department
+ * {@code departmentId:long, changeVersion:long, name, address, code}, then {@code crc32:long}
+ * over everything before it. Strings are a length ({@code -1} for null) followed by UTF-8 bytes.
+ * <p>
+ * Snapshots are written to a temporary file and atomically moved into place, so a crash while
+ * writing leaves the previous snapshot intact.
+ */
+public final class DepartmentSnapshot {
+    private static final int MAGIC = 0x4450524D; // "DPRM"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = Integer.BYTES * 3 + Long.BYTES;
+    private static final int CHECKSUM_BYTES = Long.BYTES;
+
+    private final long changeVersion;
+    private final List<Department> departments;
+
+    private DepartmentSnapshot(long changeVersion, List<Department> departments) {
+        this.changeVersion = changeVersion;
+        this.departments = departments;
+    }
+
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public List<Department> getDepartments() {
+        return departments;
+    }
+
+    public static void write(Path path, long changeVersion, Collection<Department> departments) throws IOException {
+        List<byte[][]> encoded = new ArrayList<>(departments.size());
+        long size = HEADER_BYTES + CHECKSUM_BYTES;
+        for (Department department : departments) {
+            byte[][] strings = {
+                    encode(department.getDepartmentName()),
+                    encode(department.getDepartmentAddress()),
+                    encode(department.getDepartmentCode())
+            };
+            encoded.add(strings);
+            size += Long.BYTES * 2;
+            for (byte[] string : strings) {
+                size += Integer.BYTES + (string == null ? 0 : string.length);
+            }
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Department snapshot too large: " + size + " bytes");
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(changeVersion).putInt(departments.size());
+                int index = 0;
+                for (Department department : departments) {
+                    buffer.putLong(department.getDepartmentId());
+                    buffer.putLong(department.getChangeVersion() == null ? 0L : department.getChangeVersion());
+                    for (byte[] string : encoded.get(index++)) {
+                        putString(buffer, string);
+                    }
+                }
+                buffer.putLong(checksum(buffer, buffer.position()));
+                buffer.force();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static DepartmentSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + CHECKSUM_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid department snapshot size: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            int checksumOffset = (int) size - CHECKSUM_BYTES;
+            if (buffer.getLong(checksumOffset) != checksum(buffer, checksumOffset)) {
+                throw new IOException("Department snapshot checksum mismatch: " + path);
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported department snapshot format: " + path);
+            }
+
+            long changeVersion = buffer.getLong();
+            int count = buffer.getInt();
+            List<Department> departments = new ArrayList<>(count);
+            try {
+                for (int i = 0; i < count; i++) {
+                    departments.add(Department.builder()
+                            .departmentId(buffer.getLong())
+                            .changeVersion(buffer.getLong())
+                            .departmentName(getString(buffer))
+                            .departmentAddress(getString(buffer))
+                            .departmentCode(getString(buffer))
+                            .build());
+                }
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Truncated department snapshot: " + path, e);
+            }
+            return new DepartmentSnapshot(changeVersion, departments);
+        }
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(value.length).put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long checksum(ByteBuffer buffer, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(length));
+        return crc.getValue();
+    }
+}
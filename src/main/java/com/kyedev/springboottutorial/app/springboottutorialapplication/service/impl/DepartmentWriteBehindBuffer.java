@@ -0,0 +1,356 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.Department;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.error.exceptions.DepartmentWriteBehindFullException;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory write-behind buffer for department updates.
+ * <p>
+ * Updates to the same {@code departmentId} are coalesced into one pending change, and pending changes
+ * are written in batches of {@code batchSize}, one transaction per batch, by a background flusher.
+ * <p>
+ * Acknowledgement semantics:
+ * <ul>
+ *     <li>An update is acknowledged once it is merged into the buffer. From then on it is visible to
+ *     reads on this node through {@link #pendingChanges(Long)}.</li>
+ *     <li>It becomes durable at the next flush: after at most {@code flushInterval}, earlier once
+ *     {@code batchSize} departments are pending.</li>
+ *     <li>When {@code maxPending} departments are pending, the writer asks the background flusher to
+ *     flush and waits up to {@code enqueueTimeout} for room, so memory stays bounded. Writers never
+ *     flush themselves, so they never wait for a connection while holding one. If the flusher cannot
+ *     make room in time, for example because the database is down, the update is rejected with
+ *     {@link DepartmentWriteBehindFullException}.</li>
+ *     <li>Every batch commits in its own transaction, so a batch is only removed from the buffer once
+ *     it is durable.</li>
+ *     <li>A failed flush keeps its changes in the buffer and retries them on the next flush.</li>
+ *     <li>{@link #close()} flushes everything on graceful shutdown. Updates acknowledged since the last
+ *     flush are lost if the process dies without a graceful shutdown.</li>
+ * </ul>
+ */
+public class DepartmentWriteBehindBuffer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentWriteBehindBuffer.class);
+
+    private final DepartmentRepository departmentRepository;
+    private final DepartmentChangeVersions changeVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxPending;
+    private final Duration enqueueTimeout;
+
+    private final Object lock = new Object();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    // guarded by lock
+    private final LinkedHashMap<Long, Department> pending = new LinkedHashMap<>();
+    private Map<Long, Department> inFlight = Map.of();
+    private final Set<Long> discardedInFlight = new HashSet<>();
+    private boolean closed;
+
+    private ScheduledExecutorService scheduler;
+    private volatile Consumer<Department> flushListener = department -> { };
+
+    public DepartmentWriteBehindBuffer(
+            DepartmentRepository departmentRepository,
+            DepartmentChangeVersions changeVersions,
+            PlatformTransactionManager transactionManager,
+            int batchSize,
+            int maxPending,
+            Duration enqueueTimeout
+    ) {
+        if (batchSize < 1 || maxPending < batchSize) {
+            throw new IllegalArgumentException("Write-behind requires 1 <= batchSize <= maxPending");
+        }
+        this.departmentRepository = departmentRepository;
+        this.changeVersions = changeVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.enqueueTimeout = enqueueTimeout;
+    }
+
+    /**
+     * Called with every department written by a flush, after its transaction commits.
+     */
+    public void setFlushListener(Consumer<Department> flushListener) {
+        this.flushListener = flushListener;
+    }
+
+    public void start(Duration flushInterval) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "department-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Merges the non-blank fields of {@code changes} into the pending change for {@code departmentId},
+     * waiting for the background flusher if the buffer is full.
+     *
+     * @return a copy of the coalesced pending change
+     * @throws DepartmentWriteBehindFullException if the buffer stays full for {@code enqueueTimeout}
+     */
+    public Department enqueue(Long departmentId, Department changes) {
+        long deadline = System.nanoTime() + enqueueTimeout.toNanos();
+        synchronized (lock) {
+            while (true) {
+                if (closed) {
+                    throw new IllegalStateException("Department write-behind buffer is closed");
+                }
+                Department existing = pending.get(departmentId);
+                if (existing != null || pending.size() < maxPending) {
+                    Department merged = existing != null ? existing : Department.builder().departmentId(departmentId).build();
+                    DepartmentServiceImpl.applyChanges(merged, changes);
+                    pending.put(departmentId, merged);
+                    if (pending.size() >= batchSize) {
+                        requestFlush();
+                    }
+                    return copyOf(merged);
+                }
+                requestFlush();
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new DepartmentWriteBehindFullException(
+                            "Department write-behind buffer is full, " + maxPending + " updates are waiting to be written");
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the department write-behind buffer", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the changes accepted for {@code departmentId} that are not yet committed, if any.
+     */
+    public Optional<Department> pendingChanges(Long departmentId) {
+        synchronized (lock) {
+            Department flushing = inFlight.get(departmentId);
+            Department queued = pending.get(departmentId);
+            if (flushing == null && queued == null) {
+                return Optional.empty();
+            }
+            Department changes = Department.builder().departmentId(departmentId).build();
+            if (flushing != null) {
+                DepartmentServiceImpl.applyChanges(changes, flushing);
+            }
+            if (queued != null) {
+                DepartmentServiceImpl.applyChanges(changes, queued);
+            }
+            return Optional.of(changes);
+        }
+    }
+
+    /**
+     * Returns the changes that are not yet committed for every department that has some, keyed by
+     * {@code departmentId}.
+     */
+    public Map<Long, Department> pendingChanges() {
+        synchronized (lock) {
+            Map<Long, Department> changes = new LinkedHashMap<>();
+            inFlight.forEach((departmentId, flushing) -> changes.put(departmentId, copyOf(flushing)));
+            pending.forEach((departmentId, queued) -> changes.merge(departmentId, copyOf(queued), (flushing, newer) -> {
+                DepartmentServiceImpl.applyChanges(flushing, newer);
+                return flushing;
+            }));
+            return changes;
+        }
+    }
+
+    /**
+     * Drops any pending change for {@code departmentId} without waiting for a running flush. If the
+     * department is part of the batch being written, the flush listener is not called for it.
+     */
+    public void discard(Long departmentId) {
+        synchronized (lock) {
+            pending.remove(departmentId);
+            if (inFlight.containsKey(departmentId)) {
+                discardedInFlight.add(departmentId);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Whether any change is queued or being written, i.e. whether {@link #pendingChanges} can return one.
+     */
+    public boolean hasPendingChanges() {
+        synchronized (lock) {
+            return !pending.isEmpty() || !inFlight.isEmpty();
+        }
+    }
+
+    /**
+     * Writes every change pending at the time of the call, one transaction per batch.
+     * On failure the unwritten changes stay buffered and the exception is rethrown.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            int remaining;
+            synchronized (lock) {
+                remaining = pending.size();
+            }
+            while (remaining > 0) {
+                Map<Long, Department> batch = takeBatch();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                List<Department> written;
+                try {
+                    written = writeBatch(batch);
+                } catch (RuntimeException e) {
+                    requeue(batch);
+                    clearInFlight();
+                    throw e;
+                }
+                // The batch stays visible through pendingChanges until the listener has seen it. Holding the
+                // lock keeps a concurrent discard from landing between the check and the listener call.
+                synchronized (lock) {
+                    try {
+                        written.stream()
+                                .filter(department -> !discardedInFlight.contains(department.getDepartmentId()))
+                                .forEach(flushListener);
+                    } finally {
+                        clearInFlight();
+                    }
+                }
+                remaining -= batch.size();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush {} buffered department updates on shutdown", pendingCount(), e);
+        }
+    }
+
+    private void requestFlush() {
+        if (scheduler != null && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush buffered department updates, {} will be retried", pendingCount(), e);
+        }
+    }
+
+    private Map<Long, Department> takeBatch() {
+        synchronized (lock) {
+            Map<Long, Department> batch = new LinkedHashMap<>();
+            Iterator<Map.Entry<Long, Department>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                Map.Entry<Long, Department> entry = iterator.next();
+                batch.put(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+            inFlight = batch;
+            lock.notifyAll();
+            return batch;
+        }
+    }
+
+    private List<Department> writeBatch(Map<Long, Department> batch) {
+        return transactionTemplate.execute(status -> {
+            long changeVersion = changeVersions.next();
+            List<Department> departments = departmentRepository.findAllById(batch.keySet());
+            for (Department department : departments) {
+                DepartmentServiceImpl.applyChanges(department, batch.get(department.getDepartmentId()));
+                department.setChangeVersion(changeVersion);
+            }
+            departmentRepository.saveAll(departments);
+
+            if (departments.size() < batch.size()) {
+                logger.warn("Dropped {} buffered updates for departments that no longer exist",
+                        batch.size() - departments.size());
+            }
+            return departments;
+        });
+    }
+
+    private void requeue(Map<Long, Department> batch) {
+        synchronized (lock) {
+            for (Map.Entry<Long, Department> entry : batch.entrySet()) {
+                Department newer = pending.get(entry.getKey());
+                Department merged = entry.getValue();
+                if (newer != null) {
+                    DepartmentServiceImpl.applyChanges(merged, newer);
+                }
+                pending.put(entry.getKey(), merged);
+            }
+        }
+    }
+
+    private void clearInFlight() {
+        synchronized (lock) {
+            inFlight = Map.of();
+            discardedInFlight.clear();
+        }
+    }
+
+    private static Department copyOf(Department department) {
+        return Department.builder()
+                .departmentId(department.getDepartmentId())
+                .departmentName(department.getDepartmentName())
+                .departmentCode(department.getDepartmentCode())
+                .departmentAddress(department.getDepartmentAddress())
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.loadtest;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load tests: controller → service → repository → embedded H2 on a random port.
+ * Excluded from the default build; run with {@code mvn -B test -Pload-test}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Department Load Tests")
+class DepartmentLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentLoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    private LoadTestSettings settings;
+    private LoadGenerator loadGenerator;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        settings = LoadTestSettings.fromSystemProperties();
+        DepartmentWorkload workload = new DepartmentWorkload(port, settings.readRatio());
+        workload.seed(settings.seedDepartments());
+        loadGenerator = new LoadGenerator(workload, settings);
+        logger.info("Load test settings {}", settings);
+    }
+
+    @Test
+    @DisplayName("Open-loop workload at a fixed arrival rate")
+    void openLoop() throws Exception {
+        LatencyReport report = loadGenerator.run("departments-open-loop", LoadGenerator.Mode.OPEN);
+
+        assertReport(report);
+    }
+
+    @Test
+    @DisplayName("Closed-loop workload with fixed concurrency")
+    void closedLoop() throws Exception {
+        LatencyReport report = loadGenerator.run("departments-closed-loop", LoadGenerator.Mode.CLOSED);
+
+        assertReport(report);
+    }
+
+    private void assertReport(LatencyReport report) throws Exception {
+        report.write();
+        logger.info("{}", report);
+
+        assertTrue(report.operations() > 0, "no operations were recorded");
+        assertEquals(0, report.errors(), "requests failed during the run");
+    }
+}
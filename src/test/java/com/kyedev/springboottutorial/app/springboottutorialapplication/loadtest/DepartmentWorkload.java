@@ -0,0 +1,112 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Read/write mix against the {@code /departments} endpoints over real HTTP.
+ * Reads are mostly {@code GET /departments/{id}} with some filtered list calls;
+ * writes are split between {@code POST /departments} and {@code PUT /departments/{id}}.
+ */
+class DepartmentWorkload {
+    private static final Pattern DEPARTMENT_ID = Pattern.compile("\"departmentId\"\\s*:\\s*(\\d+)");
+    private static final String[] CODES = {"IT", "HR", "FIN", "OPS", "MKT", "LEG", "RND", "SUP"};
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final double readRatio;
+    private final List<Long> departmentIds = new CopyOnWriteArrayList<>();
+
+    DepartmentWorkload(int port, double readRatio) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = "http://localhost:" + port + "/departments";
+        this.readRatio = readRatio;
+    }
+
+    void seed(int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            createDepartment(ThreadLocalRandom.current());
+        }
+    }
+
+    /**
+     * Runs one operation of the configured mix.
+     *
+     * @return {@code true} if the server answered with a 2xx status
+     */
+    boolean execute(ThreadLocalRandom random) throws IOException, InterruptedException {
+        if (random.nextDouble() < readRatio) {
+            return random.nextInt(10) == 0 ? listByCode(random) : getById(random);
+        }
+        return random.nextBoolean() ? createDepartment(random) : updateDepartment(random);
+    }
+
+    private boolean getById(ThreadLocalRandom random) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + randomId(random)))
+                .GET()
+                .build();
+        return isSuccess(send(request));
+    }
+
+    private boolean listByCode(ThreadLocalRandom random) throws IOException, InterruptedException {
+        String code = CODES[random.nextInt(CODES.length)] + "001";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?code=" + code))
+                .GET()
+                .build();
+        return isSuccess(send(request));
+    }
+
+    private boolean createDepartment(ThreadLocalRandom random) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(randomDepartmentJson(random)))
+                .build();
+        HttpResponse<String> response = send(request);
+        if (!isSuccess(response)) {
+            return false;
+        }
+        Matcher matcher = DEPARTMENT_ID.matcher(response.body());
+        if (matcher.find()) {
+            departmentIds.add(Long.parseLong(matcher.group(1)));
+        }
+        return true;
+    }
+
+    private boolean updateDepartment(ThreadLocalRandom random) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + randomId(random)))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(randomDepartmentJson(random)))
+                .build();
+        return isSuccess(send(request));
+    }
+
+    private long randomId(ThreadLocalRandom random) {
+        return departmentIds.get(random.nextInt(departmentIds.size()));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+
+    private static String randomDepartmentJson(ThreadLocalRandom random) {
+        String code = CODES[random.nextInt(CODES.length)];
+        return "{\"departmentName\":\"" + code + " Department " + random.nextInt(1000) + "\","
+                + "\"departmentCode\":\"" + code + "001\","
+                + "\"departmentAddress\":\"Building " + (char) ('A' + random.nextInt(6)) + ", Floor " + random.nextInt(1, 10) + "\"}";
+    }
+}
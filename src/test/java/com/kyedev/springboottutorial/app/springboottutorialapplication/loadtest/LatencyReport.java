@@ -0,0 +1,105 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of one load-test scenario. Writes two artifacts to the report directory so runs
+ * can be compared across commits:
+ * <ul>
+ *     <li>{@code <scenario>.hgrm} – full percentile distribution (milliseconds), plottable with
+ *     the HdrHistogram plotter;</li>
+ *     <li>{@code summary.csv} – one appended row per scenario with throughput and p50/p99/p999,
+ *     tagged with the run label (git commit by default).</li>
+ * </ul>
+ * Only open-loop rows are corrected for coordinated omission; the {@code coCorrected} column says which.
+ */
+class LatencyReport {
+    private static final String CSV_HEADER =
+            "timestamp,label,scenario,mode,coCorrected,concurrency,readRatio,targetRate,durationSeconds,"
+                    + "operations,errors,throughputPerSecond,p50Millis,p99Millis,p999Millis,maxMillis";
+
+    private final String scenario;
+    private final LoadGenerator.Mode mode;
+    private final LoadTestSettings settings;
+    private final Histogram latency;
+    private final long errors;
+    private final long elapsedNanos;
+
+    LatencyReport(String scenario, LoadGenerator.Mode mode, LoadTestSettings settings,
+                  Histogram latency, long errors, long elapsedNanos) {
+        this.scenario = scenario;
+        this.mode = mode;
+        this.settings = settings;
+        this.latency = latency;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    long operations() {
+        return latency.getTotalCount();
+    }
+
+    boolean coordinatedOmissionCorrected() {
+        return mode == LoadGenerator.Mode.OPEN;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    double throughputPerSecond() {
+        return operations() / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    double percentileMillis(double percentile) {
+        return toMillis(latency.getValueAtPercentile(percentile));
+    }
+
+    void write() throws IOException {
+        Path reportDir = settings.reportDir();
+        Files.createDirectories(reportDir);
+
+        try (PrintStream out = new PrintStream(
+                Files.newOutputStream(reportDir.resolve(scenario + ".hgrm")), false, StandardCharsets.UTF_8)) {
+            latency.outputPercentileDistribution(out, 1000.0);
+        }
+
+        Path summary = reportDir.resolve("summary.csv");
+        if (Files.notExists(summary)) {
+            Files.writeString(summary, CSV_HEADER + System.lineSeparator(), StandardCharsets.UTF_8);
+        }
+        Files.writeString(summary, toCsvRow() + System.lineSeparator(), StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+    }
+
+    private String toCsvRow() {
+        return String.format(Locale.ROOT, "%s,%s,%s,%s,%b,%d,%.2f,%d,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f",
+                Instant.now(), settings.label(), scenario, mode, coordinatedOmissionCorrected(),
+                settings.concurrency(), settings.readRatio(), settings.targetRate(), settings.duration().toSeconds(),
+                operations(), errors, throughputPerSecond(), percentileMillis(50.0), percentileMillis(99.0),
+                percentileMillis(99.9), toMillis(latency.getMaxValue()));
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%s [%s, %s] ops=%d errors=%d throughput=%.1f/s p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms",
+                scenario, mode, coordinatedOmissionCorrected() ? "CO-corrected" : "raw", operations(), errors,
+                throughputPerSecond(), percentileMillis(50.0), percentileMillis(99.0), percentileMillis(99.9),
+                toMillis(latency.getMaxValue()));
+    }
+}
@@ -0,0 +1,132 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link DepartmentWorkload} from a fixed pool of worker threads and records
+ * per-operation latency (in microseconds) into HdrHistograms.
+ *
+ * <ul>
+ *     <li>{@link Mode#OPEN} issues requests on a fixed schedule at {@code targetRate}; latency is
+ *     measured from the <em>intended</em> start time, so a stalled server is charged for the
+ *     requests it delayed (no coordinated omission).</li>
+ *     <li>{@link Mode#CLOSED} keeps {@code concurrency} requests in flight back to back. There is no
+ *     intended send time to correct against, so its latencies are service times as observed and are
+ *     reported uncorrected.</li>
+ * </ul>
+ */
+class LoadGenerator {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    enum Mode { OPEN, CLOSED }
+
+    private final DepartmentWorkload workload;
+    private final LoadTestSettings settings;
+
+    LoadGenerator(DepartmentWorkload workload, LoadTestSettings settings) {
+        this.workload = workload;
+        this.settings = settings;
+    }
+
+    LatencyReport run(String scenario, Mode mode) throws Exception {
+        if (!settings.warmup().isZero()) {
+            execute(mode, settings.warmup());
+        }
+        Duration measured = settings.duration();
+        Result result = execute(mode, measured);
+
+        return new LatencyReport(scenario, mode, settings, result.histogram, result.errors, result.elapsedNanos);
+    }
+
+    private Result execute(Mode mode, Duration duration) throws Exception {
+        int workers = settings.concurrency();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        AtomicLong errors = new AtomicLong();
+        List<Future<Histogram>> futures = new ArrayList<>(workers);
+
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        try {
+            for (int worker = 0; worker < workers; worker++) {
+                int workerIndex = worker;
+                futures.add(executor.submit(() -> mode == Mode.OPEN
+                        ? openLoop(workerIndex, startNanos, endNanos, errors)
+                        : closedLoop(endNanos, errors)));
+            }
+
+            Histogram merged = newHistogram();
+            for (Future<Histogram> future : futures) {
+                merged.add(future.get());
+            }
+            return new Result(merged, errors.get(), System.nanoTime() - startNanos);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Histogram openLoop(int workerIndex, long startNanos, long endNanos, AtomicLong errors) {
+        Histogram histogram = newHistogram();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Each worker owns every n-th slot of the global schedule.
+        long intervalNanos = TimeUnit.SECONDS.toNanos(settings.concurrency()) / settings.targetRate();
+        long intendedStart = startNanos + (intervalNanos / settings.concurrency()) * workerIndex;
+
+        while (intendedStart < endNanos) {
+            long now;
+            while ((now = System.nanoTime()) < intendedStart) {
+                LockSupport.parkNanos(intendedStart - now);
+            }
+            invoke(random, errors);
+            recordMicros(histogram, System.nanoTime() - intendedStart);
+            intendedStart += intervalNanos;
+        }
+        return histogram;
+    }
+
+    private Histogram closedLoop(long endNanos, AtomicLong errors) {
+        Histogram histogram = newHistogram();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long start;
+        while ((start = System.nanoTime()) < endNanos) {
+            invoke(random, errors);
+            recordMicros(histogram, System.nanoTime() - start);
+        }
+        return histogram;
+    }
+
+    private void invoke(ThreadLocalRandom random, AtomicLong errors) {
+        try {
+            if (!workload.execute(random)) {
+                errors.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load generator interrupted", e);
+        } catch (Exception e) {
+            errors.incrementAndGet();
+        }
+    }
+
+    private static void recordMicros(Histogram histogram, long nanos) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+
+    private record Result(Histogram histogram, long errors, long elapsedNanos) {
+    }
+}
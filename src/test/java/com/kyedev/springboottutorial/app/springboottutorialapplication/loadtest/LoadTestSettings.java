@@ -0,0 +1,81 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load-test knobs, read from {@code -Dloadtest.*} system properties so runs can be
+ * reproduced from the command line, e.g.
+ * {@code mvn -B test -Pload-test -Dloadtest.concurrency=32 -Dloadtest.targetRate=2000}.
+ */
+record LoadTestSettings(
+        Duration warmup,
+        Duration duration,
+        int concurrency,
+        double readRatio,
+        int targetRate,
+        int seedDepartments,
+        Path reportDir,
+        String label
+) {
+
+    static LoadTestSettings fromSystemProperties() {
+        LoadTestSettings settings = new LoadTestSettings(
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 5)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 20)),
+                Integer.getInteger("loadtest.concurrency", 16),
+                Double.parseDouble(System.getProperty("loadtest.readRatio", "0.9")),
+                Integer.getInteger("loadtest.targetRate", 500),
+                Integer.getInteger("loadtest.seedDepartments", 200),
+                Path.of(System.getProperty("loadtest.reportDir", "target/load-test-reports")),
+                System.getProperty("loadtest.label", gitCommit())
+        );
+        settings.validate();
+        return settings;
+    }
+
+    /**
+     * Short hash of the checked-out commit, so report rows can be matched to the code they measured.
+     */
+    private static String gitCommit() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                    .redirectErrorStream(true)
+                    .start();
+            String output;
+            try (InputStream in = process.getInputStream()) {
+                output = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+            }
+            if (process.waitFor(5, TimeUnit.SECONDS) && process.exitValue() == 0 && !output.isEmpty()) {
+                return output;
+            }
+        } catch (IOException e) {
+            // git is not available, fall through
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "unknown";
+    }
+
+    private void validate() {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("loadtest.concurrency must be at least 1");
+        }
+        if (readRatio < 0.0 || readRatio > 1.0) {
+            throw new IllegalArgumentException("loadtest.readRatio must be between 0 and 1");
+        }
+        if (targetRate < 1) {
+            throw new IllegalArgumentException("loadtest.targetRate must be at least 1");
+        }
+        if (seedDepartments < 1) {
+            throw new IllegalArgumentException("loadtest.seedDepartments must be at least 1");
+        }
+        if (label.isBlank() || label.contains(",")) {
+            throw new IllegalArgumentException("loadtest.label must be non-blank and must not contain commas");
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.service;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.Department;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentChangeCounterRepository;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentRepository;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentChangeVersions;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentCounterTable;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentReadModel;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentServiceImpl;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentWriteBehindBuffer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Department Change Version Tests")
+class DepartmentChangeVersionTest {
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DepartmentChangeCounterRepository counterRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @TempDir
+    Path tempDir;
+
+    private DepartmentChangeVersions changeVersions;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        changeVersions = new DepartmentChangeVersions(counterRepository, transactionManager);
+        changeVersions.init();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        departmentRepository.deleteAll();
+        counterRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should give every insert and update a new version, including a re-POST without one")
+    void whenSavedAndUpdated_thenEveryWriteGetsNewVersion() {
+        // Given
+        DepartmentServiceImpl service = new DepartmentServiceImpl(departmentRepository,
+                mock(DepartmentCounterTable.class), changeVersions, transactionManager, null, null);
+
+        // When
+        Department saved = transactionTemplate.execute(status -> service.saveDepartment(department("IT Department")));
+        Long departmentId = saved.getDepartmentId();
+        service.updateDepartment(departmentId, Department.builder().departmentName("Platform").build());
+        Department resubmitted = department("Platform Engineering");
+        resubmitted.setDepartmentId(departmentId);
+        transactionTemplate.executeWithoutResult(status -> service.saveDepartment(resubmitted));
+
+        // Then
+        assertEquals(1L, saved.getChangeVersion());
+        Department stored = departmentRepository.findById(departmentId).orElseThrow();
+        assertEquals("Platform Engineering", stored.getDepartmentName());
+        assertEquals(3L, stored.getChangeVersion());
+    }
+
+    @Test
+    @DisplayName("Should write a flushed batch with one version in a single JDBC batch")
+    void whenBatchFlushed_thenUpdatesShareVersionAndAreBatched() {
+        // Given
+        List<Long> departmentIds = departmentRepository.saveAll(List.of(
+                department("IT Department"), department("HR Department"), department("Finance"),
+                department("Legal"), department("Sales"))).stream().map(Department::getDepartmentId).toList();
+        DepartmentWriteBehindBuffer buffer = new DepartmentWriteBehindBuffer(
+                departmentRepository, changeVersions, transactionManager, 10, 10, Duration.ofSeconds(5));
+        departmentIds.forEach(departmentId -> buffer.enqueue(departmentId, Department.builder().departmentAddress("Building Z").build()));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        buffer.flush();
+
+        // Then: increment and read the counter, load the batch, then one batched update for all five rows
+        assertEquals(5, statistics.getEntityUpdateCount());
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(List.of(1L), departmentRepository.findAllById(departmentIds).stream()
+                .map(Department::getChangeVersion).distinct().toList());
+    }
+
+    @Test
+    @DisplayName("Should continue from the highest stored version when the counter row is created")
+    void whenCounterCreated_thenContinueFromStoredVersions() {
+        // Given
+        Department existing = department("IT Department");
+        existing.setChangeVersion(41L);
+        departmentRepository.save(existing);
+        counterRepository.deleteAll();
+
+        // When
+        changeVersions.init();
+        long next = transactionTemplate.execute(status -> changeVersions.next());
+
+        // Then
+        assertEquals(42L, next);
+    }
+
+    @Test
+    @DisplayName("Should hand out versions in commit order")
+    void whenTwoWritersOverlap_thenSecondVersionWaitsForFirstCommit() throws Exception {
+        // Given
+        CountDownLatch firstHasVersion = new CountDownLatch(1);
+        AtomicLong firstCommittedAt = new AtomicLong();
+
+        // When
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            long version = changeVersions.next();
+            firstHasVersion.countDown();
+            sleep(200);
+            firstCommittedAt.set(System.nanoTime());
+            return version;
+        }));
+        assertTrue(firstHasVersion.await(5, TimeUnit.SECONDS));
+        long second = transactionTemplate.execute(status -> changeVersions.next());
+        long secondAssignedAt = System.nanoTime();
+
+        // Then
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+        assertEquals(2L, second);
+        assertTrue(secondAssignedAt > firstCommittedAt.get());
+    }
+
+    @Test
+    @DisplayName("Should pick up another node's update and delete at the next reconcile")
+    void whenChangedElsewhere_thenReconcileFetchesChangesAndDropsDeletes() {
+        // Given
+        DepartmentServiceImpl service = new DepartmentServiceImpl(departmentRepository,
+                mock(DepartmentCounterTable.class), changeVersions, transactionManager, null, null);
+        Long itId = transactionTemplate.execute(status -> service.saveDepartment(department("IT Department"))).getDepartmentId();
+        Long hrId = transactionTemplate.execute(status -> service.saveDepartment(department("HR Department"))).getDepartmentId();
+        DepartmentReadModel readModel = new DepartmentReadModel(departmentRepository, tempDir.resolve("departments.snapshot"));
+        readModel.warmStart();
+
+        // When
+        service.updateDepartment(itId, Department.builder().departmentName("Platform").build());
+        departmentRepository.deleteById(hrId);
+        readModel.reconcile();
+
+        // Then
+        assertEquals("Platform", readModel.find(itId).orElseThrow().getDepartmentName());
+        assertEquals(3L, readModel.find(itId).orElseThrow().getChangeVersion());
+        assertTrue(readModel.find(hrId).isEmpty());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Department department(String name) {
+        return Department.builder()
+                .departmentName(name)
+                .departmentCode("IT001")
+                .departmentAddress("Building A")
+                .build();
+    }
+}
@@ -0,0 +1,178 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.service;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.Department;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentGroupKeys;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentRepository;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentCounterTable;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentReadModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Department Counter Table Tests")
+class DepartmentCounterTableTest {
+
+    @InjectMocks
+    private DepartmentCounterTable departmentCounterTable;
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(departmentRepository.findAllGroupKeys()).thenReturn(List.of(
+                groupKeys(1L, "IT001", "Building A, Floor 3"),
+                groupKeys(2L, "hr001", "Building B, Floor 1"),
+                groupKeys(3L, "IT001", "Building A, Floor 5")
+        ));
+        departmentCounterTable.load();
+    }
+
+    @Test
+    @DisplayName("Should load counts from the repository")
+    void whenLoaded_thenCountExistingDepartments() {
+        assertEquals(3L, departmentCounterTable.total());
+        assertEquals(Map.of("hr001", 1L, "it001", 2L), departmentCounterTable.countByCode());
+        assertEquals(Map.of("building a", 2L, "building b", 1L), departmentCounterTable.countByAddressPrefix());
+    }
+
+    @Test
+    @DisplayName("Should move a department between groups when it is recorded again")
+    void whenDepartmentChanges_thenMoveBetweenGroups() {
+        // When
+        departmentCounterTable.record(department(2L, "IT001", "Building C"));
+
+        // Then
+        assertEquals(3L, departmentCounterTable.total());
+        assertEquals(Map.of("it001", 3L), departmentCounterTable.countByCode());
+        assertEquals(Map.of("building a", 2L, "building c", 1L), departmentCounterTable.countByAddressPrefix());
+    }
+
+    @Test
+    @DisplayName("Should count new departments and ignore missing code or address in breakdowns")
+    void whenNewDepartmentWithoutCode_thenCountOnlyInTotal() {
+        // When
+        departmentCounterTable.record(department(4L, null, " "));
+
+        // Then
+        assertEquals(4L, departmentCounterTable.total());
+        assertEquals(Map.of("hr001", 1L, "it001", 2L), departmentCounterTable.countByCode());
+        assertEquals(Map.of("building a", 2L, "building b", 1L), departmentCounterTable.countByAddressPrefix());
+    }
+
+    @Test
+    @DisplayName("Should remove departments once and drop empty groups")
+    void whenDepartmentRemoved_thenDecrementCounts() {
+        // When
+        departmentCounterTable.remove(2L);
+        departmentCounterTable.remove(2L);
+        departmentCounterTable.remove(999L);
+
+        // Then
+        assertEquals(2L, departmentCounterTable.total());
+        assertEquals(Map.of("it001", 2L), departmentCounterTable.countByCode());
+        assertEquals(Map.of("building a", 2L), departmentCounterTable.countByAddressPrefix());
+    }
+
+    @Test
+    @DisplayName("Should group codes and address prefixes case-insensitively, like the count filter")
+    void whenKeysDifferInCase_thenCountOneGroup() {
+        // When
+        departmentCounterTable.record(department(4L, "it001", "BUILDING A, Floor 1"));
+
+        // Then
+        assertEquals(Map.of("hr001", 1L, "it001", 3L), departmentCounterTable.countByCode());
+        assertEquals(Map.of("building a", 3L, "building b", 1L), departmentCounterTable.countByAddressPrefix());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the counts from the database on refresh")
+    void whenRefreshed_thenMatchDatabase() {
+        // Given a local record that never committed and a department added by another node
+        departmentCounterTable.record(department(9L, "TMP001", "Building Z"));
+        when(departmentRepository.findAllGroupKeys()).thenReturn(List.of(
+                groupKeys(1L, "IT001", "Building A, Floor 3"),
+                groupKeys(2L, "hr001", "Building B, Floor 1"),
+                groupKeys(3L, "IT001", "Building A, Floor 5"),
+                groupKeys(4L, "FIN001", "Building C")
+        ));
+
+        // When
+        departmentCounterTable.refresh();
+
+        // Then
+        assertEquals(4L, departmentCounterTable.total());
+        assertEquals(Map.of("fin001", 1L, "hr001", 1L, "it001", 2L), departmentCounterTable.countByCode());
+        assertEquals(Map.of("building a", 2L, "building b", 1L, "building c", 1L), departmentCounterTable.countByAddressPrefix());
+        verify(departmentRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should seed from the read model and follow its reconcile changes")
+    void whenReadModelEnabled_thenSeedFromItAndFollowReconcile(@TempDir Path tempDir) {
+        // Given
+        DepartmentReadModel readModel = new DepartmentReadModel(departmentRepository, tempDir.resolve("departments.snapshot"));
+        readModel.put(department(1L, "IT001", "Building A, Floor 3"));
+        readModel.put(department(2L, "HR001", "Building B, Floor 1"));
+        DepartmentCounterTable counterTable = new DepartmentCounterTable(departmentRepository, readModel);
+        counterTable.load();
+        assertEquals(Map.of("hr001", 1L, "it001", 1L), counterTable.countByCode());
+
+        // When another node moves department 1, deletes department 2 and adds department 5
+        Department moved = department(1L, "FIN001", "Building C");
+        moved.setChangeVersion(2L);
+        Department added = department(5L, "IT001", "Building A, Floor 2");
+        added.setChangeVersion(1L);
+        when(departmentRepository.findByChangeVersionGreaterThan(0L)).thenReturn(List.of(moved, added));
+        when(departmentRepository.count()).thenReturn(2L);
+        when(departmentRepository.findAllIds()).thenReturn(List.of(1L, 5L));
+        readModel.reconcile();
+
+        // Then
+        verify(departmentRepository, times(1)).findAllGroupKeys();
+        assertEquals(2L, counterTable.total());
+        assertEquals(Map.of("fin001", 1L, "it001", 1L), counterTable.countByCode());
+        assertEquals(Map.of("building a", 1L, "building c", 1L), counterTable.countByAddressPrefix());
+    }
+
+    private static DepartmentGroupKeys groupKeys(Long departmentId, String code, String address) {
+        return new DepartmentGroupKeys() {
+            @Override
+            public Long getDepartmentId() {
+                return departmentId;
+            }
+
+            @Override
+            public String getDepartmentCode() {
+                return code;
+            }
+
+            @Override
+            public String getDepartmentAddress() {
+                return address;
+            }
+        };
+    }
+
+    private static Department department(Long id, String code, String address) {
+        return Department.builder()
+                .departmentId(id)
+                .departmentName("Department " + id)
+                .departmentCode(code)
+                .departmentAddress(address)
+                .build();
+    }
+}
@@ -0,0 +1,237 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.service;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.Department;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentRepository;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentReadModel;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Department Read Model Tests")
+class DepartmentReadModelTest {
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshot;
+    private DepartmentReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = tempDir.resolve("departments.snapshot");
+        readModel = new DepartmentReadModel(departmentRepository, snapshot);
+    }
+
+    @Test
+    @DisplayName("Should load every department from the database when there is no snapshot")
+    void whenNoSnapshot_thenLoadFromDatabase() {
+        // Given
+        when(departmentRepository.findAll()).thenReturn(List.of(
+                department(1L, 1L, "IT Department"),
+                department(2L, 3L, "HR Department")
+        ));
+        when(departmentRepository.count()).thenReturn(2L);
+
+        // When
+        readModel.warmStart();
+        readModel.reconcile();
+
+        // Then
+        assertEquals(2, readModel.size());
+        assertEquals("HR Department", readModel.find(2L).orElseThrow().getDepartmentName());
+        verify(departmentRepository, times(1)).findByChangeVersionGreaterThan(3L);
+    }
+
+    @Test
+    @DisplayName("Should fetch only departments changed since the snapshot and drop deleted ones")
+    void whenSnapshotExists_thenReconcileDeltasOnly() throws IOException {
+        // Given
+        DepartmentSnapshot.write(snapshot, 4L, List.of(
+                department(1L, 1L, "IT Department"),
+                department(2L, 1L, "HR Department"),
+                department(3L, 4L, "Finance")
+        ));
+        when(departmentRepository.findByChangeVersionGreaterThan(4L)).thenReturn(List.of(
+                department(2L, 5L, "People Operations"),
+                department(4L, 6L, "Legal")
+        ));
+        when(departmentRepository.count()).thenReturn(3L);
+        when(departmentRepository.findAllIds()).thenReturn(List.of(1L, 2L, 4L));
+
+        // When
+        readModel.warmStart();
+
+        // Then
+        assertEquals(List.of(1L, 2L, 4L), readModel.findAll().stream().map(Department::getDepartmentId).toList());
+        assertEquals("IT Department", readModel.find(1L).orElseThrow().getDepartmentName());
+        assertEquals("People Operations", readModel.find(2L).orElseThrow().getDepartmentName());
+        assertTrue(readModel.find(3L).isEmpty());
+        verify(departmentRepository, never()).findAll();
+        verify(departmentRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    @DisplayName("Should not scan ids or fetch departments when the snapshot is current")
+    void whenSnapshotCurrent_thenNoDepartmentsFetched() throws IOException {
+        // Given
+        DepartmentSnapshot.write(snapshot, 5L, List.of(department(1L, 5L, "IT Department")));
+        when(departmentRepository.count()).thenReturn(1L);
+
+        // When
+        readModel.warmStart();
+
+        // Then
+        assertEquals(1, readModel.size());
+        verify(departmentRepository, times(1)).findByChangeVersionGreaterThan(5L);
+        verify(departmentRepository, never()).findAllIds();
+        verify(departmentRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database when the snapshot is unreadable")
+    void whenSnapshotCorrupted_thenLoadFromDatabase() throws IOException {
+        // Given
+        Files.write(snapshot, new byte[]{1, 2, 3});
+        when(departmentRepository.findAll()).thenReturn(List.of(department(1L, 1L, "IT Department")));
+
+        // When
+        readModel.warmStart();
+
+        // Then
+        assertEquals(1, readModel.size());
+    }
+
+    @Test
+    @DisplayName("Should ask only for versions above the highest one reconciled")
+    void whenReconciledAgain_thenContinueFromHighestVersion() {
+        // Given
+        readModel.warmStart();
+        when(departmentRepository.findByChangeVersionGreaterThan(0L)).thenReturn(List.of(
+                department(1L, 5L, "IT Department"),
+                department(2L, 3L, "HR Department")
+        ));
+        when(departmentRepository.count()).thenReturn(2L);
+        readModel.reconcile();
+
+        // When
+        readModel.reconcile();
+
+        // Then
+        verify(departmentRepository, times(1)).findByChangeVersionGreaterThan(5L);
+        verify(departmentRepository, never()).findAllIds();
+    }
+
+    @Test
+    @DisplayName("Should write a snapshot on close that a restarted model continues from")
+    void whenClosed_thenSnapshotWrittenForNextStart() {
+        // Given
+        when(departmentRepository.findAll()).thenReturn(List.of(department(6L, 9L, "Finance")));
+        readModel.warmStart();
+        readModel.put(department(7L, 10L, "Support"));
+        readModel.put(department(8L, 11L, "Marketing"));
+        readModel.remove(8L);
+
+        // When
+        readModel.close();
+        DepartmentReadModel restarted = new DepartmentReadModel(departmentRepository, snapshot);
+        when(departmentRepository.findByChangeVersionGreaterThan(9L)).thenReturn(List.of(department(7L, 10L, "Support")));
+        when(departmentRepository.count()).thenReturn(2L);
+        restarted.warmStart();
+
+        // Then
+        assertEquals("Support", restarted.find(7L).orElseThrow().getDepartmentName());
+        assertEquals(2, restarted.size());
+        verify(departmentRepository, times(1)).findAll();
+        verify(departmentRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    @DisplayName("Should not replace a department with an older version")
+    void whenOlderVersionPut_thenKeepNewer() {
+        // Given
+        List<Department> changed = new ArrayList<>();
+        readModel.addListener(listener(changed));
+        readModel.put(department(1L, 3L, "Platform"));
+
+        // When
+        readModel.put(department(1L, 2L, "IT Department"));
+
+        // Then
+        assertEquals("Platform", readModel.find(1L).orElseThrow().getDepartmentName());
+        assertEquals(1, changed.size());
+    }
+
+    @Test
+    @DisplayName("Should not bring back a department removed in the last two reconciles")
+    void whenRemovedDepartmentPutLate_thenStayRemoved() {
+        // Given
+        readModel.put(department(1L, 1L, "IT Department"));
+        readModel.remove(1L);
+
+        // When a read that started before the delete fills the model afterwards
+        readModel.put(department(1L, 1L, "IT Department"));
+        readModel.reconcile();
+        readModel.put(department(1L, 1L, "IT Department"));
+
+        // Then
+        assertTrue(readModel.find(1L).isEmpty());
+
+        // The tombstone is dropped once no earlier read can still be running
+        readModel.reconcile();
+        readModel.put(department(1L, 1L, "IT Department"));
+        assertTrue(readModel.find(1L).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should return copies that do not change the model")
+    void whenReturnedDepartmentModified_thenModelUnchanged() {
+        // Given
+        readModel.put(department(1L, 1L, "IT Department"));
+
+        // When
+        readModel.find(1L).orElseThrow().setDepartmentName("Changed");
+
+        // Then
+        assertEquals("IT Department", readModel.find(1L).orElseThrow().getDepartmentName());
+    }
+
+    private static DepartmentReadModel.Listener listener(List<Department> changed) {
+        return new DepartmentReadModel.Listener() {
+            @Override
+            public void departmentChanged(Department department) {
+                changed.add(department);
+            }
+
+            @Override
+            public void departmentRemoved(Long departmentId) {
+            }
+        };
+    }
+
+    private static Department department(Long id, Long changeVersion, String name) {
+        return Department.builder()
+                .departmentId(id)
+                .changeVersion(changeVersion)
+                .departmentName(name)
+                .build();
+    }
+}
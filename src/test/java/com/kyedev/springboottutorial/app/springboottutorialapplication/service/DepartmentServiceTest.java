@@ -3,22 +3,41 @@ package com.kyedev.springboottutorial.app.springboottutorialapplication.service;
 import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.Department;
 import com.kyedev.springboottutorial.app.springboottutorialapplication.error.exceptions.DepartmentNotFoundException;
 import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentRepository;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentChangeVersions;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentCounterTable;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentReadModel;
 import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentServiceImpl;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentWriteBehindBuffer;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.jpa.domain.Specification;
-
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +57,15 @@ class DepartmentServiceTest {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    @Mock
+    private DepartmentCounterTable departmentCounterTable;
+
+    @Mock
+    private DepartmentChangeVersions changeVersions;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private Department testDepartment;
     private Department anotherDepartment;
 
@@ -76,6 +104,20 @@ class DepartmentServiceTest {
         verify(departmentRepository, times(1)).save(testDepartment);
     }
 
+    @Test
+    @DisplayName("Should give a saved department a new change version")
+    void whenSaveDepartment_thenAssignChangeVersion() {
+        // Given
+        when(changeVersions.next()).thenReturn(7L);
+        when(departmentRepository.save(any(Department.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Department savedDepartment = departmentService.saveDepartment(testDepartment);
+
+        // Then
+        assertEquals(7L, savedDepartment.getChangeVersion());
+    }
+
 
     @Test
     @DisplayName("Should return all departments when no filters provided")
@@ -301,6 +343,21 @@ class DepartmentServiceTest {
         assertEquals("Building C, Floor 5", savedDept.getDepartmentAddress());
     }
 
+    @Test
+    @DisplayName("Should give an updated department a new change version")
+    void whenUpdatingDepartment_thenAssignChangeVersion() {
+        // Given
+        when(changeVersions.next()).thenReturn(8L);
+        when(departmentRepository.findById(1L)).thenReturn(Optional.of(testDepartment));
+        when(departmentRepository.save(any(Department.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Department updated = departmentService.updateDepartment(1L, Department.builder().departmentName("Platform").build());
+
+        // Then
+        assertEquals(8L, updated.getChangeVersion());
+    }
+
     @Test
     @DisplayName("Should update only name when only name is provided")
     void whenUpdatingOnlyName_thenUpdateOnlyName() {
@@ -403,4 +460,311 @@ class DepartmentServiceTest {
         verify(departmentRepository, times(1)).save(testDepartment);
     }
 
-}
\ No newline at end of file
+    // ==================== COUNT DEPARTMENT TESTS ====================
+
+    @Test
+    @DisplayName("Should update counters when a department is saved, updated or deleted")
+    void whenWritingDepartments_thenUpdateCounters() {
+        // Given
+        Long departmentId = 1L;
+        when(departmentRepository.save(any(Department.class))).thenReturn(testDepartment);
+        when(departmentRepository.findById(departmentId)).thenReturn(Optional.of(testDepartment));
+        when(departmentRepository.existsById(departmentId)).thenReturn(true);
+
+        // When
+        departmentService.saveDepartment(testDepartment);
+        departmentService.updateDepartment(departmentId, new Department());
+        departmentService.deleteDepartmentById(departmentId);
+
+        // Then
+        verify(departmentCounterTable, times(2)).record(testDepartment);
+        verify(departmentCounterTable, times(1)).remove(departmentId);
+    }
+
+    @Test
+    @DisplayName("Should return total count from counters when no filters provided")
+    void whenCountingWithoutFilters_thenUseCounters() {
+        // Given
+        when(departmentCounterTable.total()).thenReturn(2L);
+
+        // When
+        long count = departmentService.countDepartments(null, " ", "");
+
+        // Then
+        assertEquals(2L, count);
+        verify(departmentRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @DisplayName("Should run a count query when filters are provided")
+    void whenCountingWithFilters_thenRunCountQuery() {
+        // Given
+        when(departmentRepository.count(any(Specification.class))).thenReturn(1L);
+
+        // When
+        long count = departmentService.countDepartments("IT", "IT001", null);
+
+        // Then
+        assertEquals(1L, count);
+        verify(departmentRepository, times(1)).count(any(Specification.class));
+        verify(departmentRepository, never()).findAll(any(Specification.class));
+        verify(departmentCounterTable, never()).total();
+    }
+
+    @Test
+    @DisplayName("Should return group-by counts from counters")
+    void whenGroupingCounts_thenUseCounters() {
+        // Given
+        when(departmentCounterTable.countByCode()).thenReturn(Map.of("hr001", 1L, "it001", 1L));
+        when(departmentCounterTable.countByAddressPrefix()).thenReturn(Map.of("building a", 1L, "building b", 1L));
+
+        // When & Then
+        assertEquals(Map.of("hr001", 1L, "it001", 1L), departmentService.countDepartmentsByCode());
+        assertEquals(Map.of("building a", 1L, "building b", 1L), departmentService.countDepartmentsByAddressPrefix());
+        verifyNoInteractions(departmentRepository);
+    }
+
+    @Test
+    @DisplayName("Should serve counts from memory without opening a transaction")
+    void whenCountingFromCounters_thenNoTransactionIsOpened() throws SQLException {
+        // Given
+        DataSource dataSource = mock(DataSource.class);
+        DepartmentService service = transactional(departmentService, dataSource);
+        when(departmentCounterTable.total()).thenReturn(2L);
+
+        // When
+        service.countDepartments(null, null, null);
+        service.countDepartmentsByCode();
+        service.countDepartmentsByAddressPrefix();
+
+        // Then
+        verifyNoInteractions(dataSource);
+
+        // A write through the same proxy does open one
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        service.saveDepartment(testDepartment);
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    // ==================== READ MODEL TESTS ====================
+
+    @Test
+    @DisplayName("Should pass committed writes to the counters through the read model when it is enabled")
+    void whenReadModelEnabled_thenWritesReachCountersThroughIt(@TempDir Path tempDir) {
+        // Given
+        DepartmentReadModel readModel = new DepartmentReadModel(departmentRepository, tempDir.resolve("departments.snapshot"));
+        DepartmentServiceImpl service = new DepartmentServiceImpl(
+                departmentRepository, departmentCounterTable, changeVersions, transactionManager, null, readModel);
+        when(departmentRepository.save(any(Department.class))).thenReturn(testDepartment);
+        when(departmentRepository.existsById(2L)).thenReturn(true);
+
+        // When
+        service.saveDepartment(testDepartment);
+        service.deleteDepartmentById(2L);
+
+        // Then
+        assertEquals("IT Department", readModel.find(1L).orElseThrow().getDepartmentName());
+        verifyNoInteractions(departmentCounterTable);
+    }
+
+    @Test
+    @DisplayName("Should serve read-model hits without the repository or a transaction")
+    void whenReadModelHit_thenNoRepositoryOrTransaction(@TempDir Path tempDir) throws DepartmentNotFoundException {
+        // Given
+        DepartmentReadModel readModel = new DepartmentReadModel(departmentRepository, tempDir.resolve("departments.snapshot"));
+        readModel.put(testDepartment);
+        readModel.put(anotherDepartment);
+        DataSource dataSource = mock(DataSource.class);
+        DepartmentService service = transactional(
+                new DepartmentServiceImpl(departmentRepository, departmentCounterTable, changeVersions, transactionManager, null, readModel), dataSource);
+
+        // When
+        Department department = service.getDepartmentById(2L);
+        List<Department> departments = service.getDepartments(null, "", null);
+
+        // Then
+        assertEquals("HR Department", department.getDepartmentName());
+        assertEquals(List.of(1L, 2L), departments.stream().map(Department::getDepartmentId).toList());
+        verifyNoInteractions(dataSource, departmentRepository);
+    }
+
+    // ==================== WRITE-BEHIND TESTS ====================
+
+    @Test
+    @DisplayName("Should buffer an update instead of saving it when write-behind is enabled")
+    void whenWriteBehindEnabled_thenUpdateIsBuffered() {
+        // Given
+        DepartmentWriteBehindBuffer buffer = newWriteBehindBuffer();
+        DepartmentServiceImpl service = writeBehindService(buffer);
+        when(departmentRepository.findById(1L)).thenReturn(Optional.of(testDepartment));
+
+        // When
+        Department updated = service.updateDepartment(1L, Department.builder().departmentName("Platform").build());
+
+        // Then
+        assertEquals(1L, updated.getDepartmentId());
+        assertEquals("Platform", updated.getDepartmentName());
+        assertEquals("IT001", updated.getDepartmentCode());
+        assertEquals("IT Department", testDepartment.getDepartmentName());
+        assertEquals(1, buffer.pendingCount());
+        verify(departmentRepository, never()).save(any(Department.class));
+        verify(departmentRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    @DisplayName("Should buffer an update found in the read model without the repository or a transaction")
+    void whenBufferedUpdateHitsReadModel_thenNoRepositoryOrTransaction(@TempDir Path tempDir) {
+        // Given
+        DepartmentReadModel readModel = new DepartmentReadModel(departmentRepository, tempDir.resolve("departments.snapshot"));
+        readModel.put(testDepartment);
+        DepartmentWriteBehindBuffer buffer = newWriteBehindBuffer();
+        DataSource dataSource = mock(DataSource.class);
+        DepartmentService service = transactional(
+                new DepartmentServiceImpl(departmentRepository, departmentCounterTable, changeVersions, transactionManager, buffer, readModel), dataSource);
+
+        // When
+        Department updated = service.updateDepartment(1L, Department.builder().departmentName("Platform").build());
+
+        // Then
+        assertEquals("Platform", updated.getDepartmentName());
+        assertEquals(1, buffer.pendingCount());
+        verifyNoInteractions(dataSource, departmentRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should not count a buffered update until it is flushed, like the filtered count")
+    void whenUpdateIsBuffered_thenCountersUnchanged() {
+        // Given
+        DepartmentServiceImpl service = writeBehindService(newWriteBehindBuffer());
+        when(departmentRepository.findById(1L)).thenReturn(Optional.of(testDepartment));
+
+        // When
+        Department updated = service.updateDepartment(1L, Department.builder().departmentCode("PLT001").build());
+
+        // Then
+        assertEquals("PLT001", updated.getDepartmentCode());
+        verify(departmentCounterTable, never()).record(any(Department.class));
+    }
+
+    @Test
+    @DisplayName("Should return buffered updates from reads before they are flushed")
+    void whenUpdateIsBuffered_thenReadsIncludeIt() throws DepartmentNotFoundException {
+        // Given
+        DepartmentWriteBehindBuffer buffer = newWriteBehindBuffer();
+        DepartmentServiceImpl service = writeBehindService(buffer);
+        buffer.enqueue(2L, Department.builder().departmentName("People Operations").build());
+        when(departmentRepository.findById(2L)).thenReturn(Optional.of(anotherDepartment));
+        when(departmentRepository.findAll()).thenReturn(Arrays.asList(testDepartment, anotherDepartment));
+
+        // When
+        Department byId = service.getDepartmentById(2L);
+        List<Department> all = service.getDepartments(null, null, null);
+
+        // Then
+        assertEquals("People Operations", byId.getDepartmentName());
+        assertEquals("HR001", byId.getDepartmentCode());
+        assertEquals(List.of("IT Department", "People Operations"),
+                all.stream().map(Department::getDepartmentName).toList());
+        assertEquals("HR Department", anotherDepartment.getDepartmentName());
+    }
+
+    @Test
+    @DisplayName("Should apply filters to buffered values rather than committed ones")
+    void whenBufferedUpdateChangesFilteredField_thenFilteredReadsFollowIt() {
+        // Given
+        DepartmentWriteBehindBuffer buffer = newWriteBehindBuffer();
+        DepartmentServiceImpl service = writeBehindService(buffer);
+        buffer.enqueue(1L, Department.builder().departmentCode("HR001").build());
+        buffer.enqueue(2L, Department.builder().departmentName("People Operations").build());
+        when(departmentRepository.findAll(any(Specification.class)))
+                .thenReturn(List.of(testDepartment))
+                .thenReturn(List.of(anotherDepartment));
+        when(departmentRepository.findAllById(List.of(1L))).thenReturn(List.of(testDepartment));
+
+        // When
+        List<Department> oldCode = service.getDepartments(null, "IT001", null);
+        List<Department> newCode = service.getDepartments(null, "hr001", null);
+
+        // Then
+        assertTrue(oldCode.isEmpty());
+        assertEquals(List.of(1L, 2L), newCode.stream().map(Department::getDepartmentId).toList());
+        assertEquals(List.of("HR001", "HR001"), newCode.stream().map(Department::getDepartmentCode).toList());
+        assertEquals("People Operations", newCode.get(1).getDepartmentName());
+        // Department 2's buffered change does not touch the code, so it is never fetched as a candidate.
+        verify(departmentRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    @DisplayName("Should keep buffered updates when a delete rolls back")
+    void whenDeleteRollsBack_thenKeepBufferedUpdates() {
+        // Given
+        DepartmentWriteBehindBuffer buffer = newWriteBehindBuffer();
+        DepartmentServiceImpl service = writeBehindService(buffer);
+        buffer.enqueue(1L, Department.builder().departmentName("Platform").build());
+        when(departmentRepository.existsById(1L)).thenReturn(true);
+
+        // When
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> service.deleteDepartmentById(1L));
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        verify(departmentRepository, times(1)).deleteById(1L);
+        assertEquals("Platform", buffer.pendingChanges(1L).orElseThrow().getDepartmentName());
+        verify(departmentCounterTable, never()).remove(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should drop buffered updates once a delete commits")
+    void whenDeleteCommits_thenDiscardBufferedUpdates() {
+        // Given
+        DepartmentWriteBehindBuffer buffer = newWriteBehindBuffer();
+        DepartmentServiceImpl service = writeBehindService(buffer);
+        buffer.enqueue(1L, Department.builder().departmentName("Platform").build());
+        when(departmentRepository.existsById(1L)).thenReturn(true);
+
+        // When
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> service.deleteDepartmentById(1L));
+        assertTrue(buffer.pendingChanges(1L).isPresent());
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        // Then
+        assertTrue(buffer.pendingChanges(1L).isEmpty());
+        verify(departmentCounterTable, times(1)).remove(1L);
+    }
+
+    private DepartmentWriteBehindBuffer newWriteBehindBuffer() {
+        return new DepartmentWriteBehindBuffer(
+                departmentRepository, changeVersions, mock(PlatformTransactionManager.class), 100, 1000, Duration.ofSeconds(5));
+    }
+
+    private DepartmentServiceImpl writeBehindService(DepartmentWriteBehindBuffer buffer) {
+        return new DepartmentServiceImpl(departmentRepository, departmentCounterTable, changeVersions, transactionManager, buffer, null);
+    }
+
+    /**
+     * Wraps {@code target} in the transaction advice Spring would apply, backed by {@code dataSource},
+     * so a test can tell from the data source whether a call opened a transaction.
+     */
+    private static DepartmentService transactional(DepartmentServiceImpl target, DataSource dataSource) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(new TransactionInterceptor(
+                (TransactionManager) new DataSourceTransactionManager(dataSource),
+                new AnnotationTransactionAttributeSource()));
+        return (DepartmentService) proxyFactory.getProxy();
+    }
+
+    /**
+     * Runs {@code action} with transaction synchronization active and returns the callbacks it registered,
+     * so a test can decide whether the surrounding transaction commits or rolls back.
+     */
+    private static List<TransactionSynchronization> inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.service;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.Department;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Department Snapshot Tests")
+class DepartmentSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should read back exactly what was written")
+    void whenWritten_thenReadBackSameDepartments() throws IOException {
+        // Given
+        Path snapshot = tempDir.resolve("departments.snapshot");
+        List<Department> departments = List.of(
+                department(1L, 3L, "IT Department", "IT001", "Building A, Floor 3"),
+                department(2L, null, "Département RH", null, null)
+        );
+
+        // When
+        DepartmentSnapshot.write(snapshot, 7L, departments);
+        DepartmentSnapshot written = DepartmentSnapshot.read(snapshot);
+        List<Department> read = written.getDepartments();
+
+        // Then
+        assertEquals(7L, written.getChangeVersion());
+        assertEquals(2, read.size());
+        assertEquals(departments.get(0), read.get(0));
+        assertEquals(2L, read.get(1).getDepartmentId());
+        assertEquals(0L, read.get(1).getChangeVersion());
+        assertEquals("Département RH", read.get(1).getDepartmentName());
+        assertNull(read.get(1).getDepartmentCode());
+        assertNull(read.get(1).getDepartmentAddress());
+    }
+
+    @Test
+    @DisplayName("Should replace an existing snapshot")
+    void whenWrittenTwice_thenKeepLatest() throws IOException {
+        // Given
+        Path snapshot = tempDir.resolve("departments.snapshot");
+        DepartmentSnapshot.write(snapshot, 1L, List.of(department(1L, 1L, "IT", "IT001", "Building A")));
+
+        // When
+        DepartmentSnapshot.write(snapshot, 2L, List.of());
+
+        // Then
+        assertTrue(DepartmentSnapshot.read(snapshot).getDepartments().isEmpty());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a corrupted snapshot")
+    void whenCorrupted_thenThrowIOException() throws IOException {
+        // Given
+        Path snapshot = tempDir.resolve("departments.snapshot");
+        DepartmentSnapshot.write(snapshot, 1L, List.of(department(1L, 1L, "IT", "IT001", "Building A")));
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[20] ^= 0x7F;
+        Files.write(snapshot, bytes);
+
+        // When & Then
+        assertThrows(IOException.class, () -> DepartmentSnapshot.read(snapshot));
+    }
+
+    @Test
+    @DisplayName("Should reject a truncated snapshot")
+    void whenTruncated_thenThrowIOException() throws IOException {
+        // Given
+        Path snapshot = tempDir.resolve("departments.snapshot");
+        Files.write(snapshot, new byte[4]);
+
+        // When & Then
+        assertThrows(IOException.class, () -> DepartmentSnapshot.read(snapshot));
+    }
+
+    private static Department department(Long id, Long changeVersion, String name, String code, String address) {
+        return Department.builder()
+                .departmentId(id)
+                .changeVersion(changeVersion)
+                .departmentName(name)
+                .departmentCode(code)
+                .departmentAddress(address)
+                .build();
+    }
+}
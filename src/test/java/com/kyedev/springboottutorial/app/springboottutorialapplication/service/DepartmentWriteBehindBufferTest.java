@@ -0,0 +1,318 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.service;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.Department;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.error.exceptions.DepartmentWriteBehindFullException;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentRepository;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentChangeVersions;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentWriteBehindBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Department Write-Behind Buffer Tests")
+class DepartmentWriteBehindBufferTest {
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private DepartmentChangeVersions changeVersions;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Long, Department> database = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        database.put(1L, department(1L, "IT Department", "IT001", "Building A, Floor 3"));
+        database.put(2L, department(2L, "HR Department", "HR001", "Building B, Floor 1"));
+
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(departmentRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Department> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                Optional.ofNullable(database.get((Long) id)).ifPresent(found::add);
+            }
+            return found;
+        });
+    }
+
+    @Test
+    @DisplayName("Should coalesce repeated updates to the same department into one write")
+    void whenSameDepartmentUpdatedRepeatedly_thenWriteOnce() {
+        // Given
+        DepartmentWriteBehindBuffer buffer = newBuffer(10, 100);
+
+        // When
+        buffer.enqueue(1L, changes("Platform", null, null));
+        buffer.enqueue(1L, changes(null, "PLT001", null));
+        Department pending = buffer.enqueue(1L, changes("Platform Engineering", null, ""));
+
+        // Then
+        assertEquals(1, buffer.pendingCount());
+        assertEquals("Platform Engineering", pending.getDepartmentName());
+        assertEquals("PLT001", pending.getDepartmentCode());
+        assertNull(pending.getDepartmentAddress());
+        verifyNoInteractions(departmentRepository);
+
+        buffer.flush();
+
+        assertEquals(0, buffer.pendingCount());
+        verify(transactionManager, times(1)).commit(any());
+        Department stored = database.get(1L);
+        assertEquals("Platform Engineering", stored.getDepartmentName());
+        assertEquals("PLT001", stored.getDepartmentCode());
+        assertEquals("Building A, Floor 3", stored.getDepartmentAddress());
+    }
+
+    @Test
+    @DisplayName("Should write pending changes in transactions of at most batch size, one version per batch")
+    void whenFlushing_thenWriteOneTransactionPerBatch() {
+        // Given
+        for (long id = 3; id <= 5; id++) {
+            database.put(id, department(id, "Department " + id, "D00" + id, "Building C"));
+        }
+        when(changeVersions.next()).thenReturn(11L, 12L, 13L);
+        DepartmentWriteBehindBuffer buffer = newBuffer(2, 10);
+        for (long id = 1; id <= 5; id++) {
+            buffer.enqueue(id, changes(null, null, "Building Z"));
+        }
+
+        // When
+        buffer.flush();
+
+        // Then
+        verify(transactionManager, times(3)).commit(any());
+        ArgumentCaptor<Collection<Department>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(departmentRepository, times(3)).saveAll(saved.capture());
+        assertEquals(List.of(2, 2, 1), saved.getAllValues().stream().map(Collection::size).toList());
+        database.values().forEach(department -> assertEquals("Building Z", department.getDepartmentAddress()));
+        assertEquals(List.of(11L, 11L, 12L, 12L, 13L),
+                List.of(1L, 2L, 3L, 4L, 5L).stream().map(id -> database.get(id).getChangeVersion()).toList());
+    }
+
+    @Test
+    @DisplayName("Should expose pending changes to readers until they are flushed")
+    void whenUpdatePending_thenPendingChangesAreVisible() {
+        // Given
+        DepartmentWriteBehindBuffer buffer = newBuffer(10, 100);
+        buffer.enqueue(2L, changes("People Operations", null, null));
+
+        // When & Then
+        assertEquals("People Operations", buffer.pendingChanges(2L).orElseThrow().getDepartmentName());
+        assertTrue(buffer.pendingChanges(1L).isEmpty());
+        assertEquals("HR Department", database.get(2L).getDepartmentName());
+
+        buffer.flush();
+        assertTrue(buffer.pendingChanges(2L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep a batch visible to readers until the flush listener has seen it")
+    void whenBatchInFlight_thenPendingChangesAreStillVisible() {
+        // Given
+        DepartmentWriteBehindBuffer buffer = newBuffer(10, 100);
+        buffer.enqueue(2L, changes("People Operations", null, null));
+        List<Boolean> visibleDuringFlush = new ArrayList<>();
+        buffer.setFlushListener(department -> {
+            visibleDuringFlush.add(buffer.hasPendingChanges());
+            visibleDuringFlush.add(buffer.pendingChanges(2L).isPresent());
+        });
+
+        // When
+        buffer.flush();
+
+        // Then
+        assertEquals(List.of(true, true), visibleDuringFlush);
+        assertEquals(0, buffer.pendingCount());
+        assertFalse(buffer.hasPendingChanges());
+    }
+
+    @Test
+    @DisplayName("Should make a writer wait for the background flusher when the buffer is full")
+    void whenBufferFull_thenWriterWaitsForBackgroundFlush() {
+        // Given
+        database.put(3L, department(3L, "Finance", "FIN001", "Building C"));
+        Set<String> writingThreads = ConcurrentHashMap.newKeySet();
+        when(departmentRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            writingThreads.add(Thread.currentThread().getName());
+            return invocation.getArgument(0);
+        });
+        DepartmentWriteBehindBuffer buffer = newBuffer(2, 2);
+        buffer.start(Duration.ofHours(1));
+        buffer.enqueue(1L, changes("A", null, null));
+        buffer.enqueue(2L, changes("B", null, null));
+
+        // When
+        buffer.enqueue(3L, changes("C", null, null));
+
+        // Then
+        verify(departmentRepository, timeout(5_000)).saveAll(anyIterable());
+        assertEquals(Set.of("department-write-behind"), writingThreads);
+        buffer.close();
+        assertEquals("A", database.get(1L).getDepartmentName());
+        assertEquals("B", database.get(2L).getDepartmentName());
+        assertEquals("C", database.get(3L).getDepartmentName());
+    }
+
+    @Test
+    @DisplayName("Should reject an update when the buffer stays full for the enqueue timeout")
+    void whenBufferStaysFull_thenRejectUpdate() {
+        // Given
+        DepartmentWriteBehindBuffer buffer = newBuffer(1, 1, Duration.ofMillis(50));
+        buffer.enqueue(1L, changes("A", null, null));
+
+        // When & Then
+        assertThrows(DepartmentWriteBehindFullException.class, () -> buffer.enqueue(2L, changes("B", null, null)));
+        assertEquals("A", buffer.enqueue(1L, changes(null, "IT002", null)).getDepartmentName());
+        assertEquals(1, buffer.pendingCount());
+        verifyNoInteractions(departmentRepository);
+    }
+
+    @Test
+    @DisplayName("Should discard without waiting for a running flush and skip the listener for it")
+    void whenDiscardingDuringFlush_thenDoNotWaitAndSkipListener() throws Exception {
+        // Given
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(departmentRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        });
+        DepartmentWriteBehindBuffer buffer = newBuffer(10, 100);
+        List<Long> notified = new ArrayList<>();
+        buffer.setFlushListener(department -> notified.add(department.getDepartmentId()));
+        buffer.enqueue(1L, changes("Platform", null, null));
+        buffer.enqueue(2L, changes("People", null, null));
+        ExecutorService flusher = Executors.newSingleThreadExecutor();
+
+        try {
+            // When
+            Future<?> flush = flusher.submit(buffer::flush);
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> buffer.discard(1L));
+            release.countDown();
+            flush.get(5, TimeUnit.SECONDS);
+        } finally {
+            flusher.shutdownNow();
+        }
+
+        // Then
+        assertEquals(List.of(2L), notified);
+        assertFalse(buffer.hasPendingChanges());
+    }
+
+    @Test
+    @DisplayName("Should keep changes buffered and merge newer ones when a flush fails")
+    void whenFlushFails_thenChangesAreRetried() {
+        // Given
+        DepartmentWriteBehindBuffer buffer = newBuffer(10, 100);
+        buffer.enqueue(1L, changes("Platform", "PLT001", null));
+        when(departmentRepository.saveAll(anyIterable()))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        assertThrows(DataAccessResourceFailureException.class, buffer::flush);
+        buffer.enqueue(1L, changes("Platform Engineering", null, null));
+
+        // Then
+        assertEquals(1, buffer.pendingCount());
+        Department pending = buffer.pendingChanges(1L).orElseThrow();
+        assertEquals("Platform Engineering", pending.getDepartmentName());
+        assertEquals("PLT001", pending.getDepartmentCode());
+
+        buffer.flush();
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    @DisplayName("Should drop pending changes of departments that were deleted")
+    void whenDepartmentDeleted_thenPendingChangesAreDropped() {
+        // Given
+        DepartmentWriteBehindBuffer buffer = newBuffer(10, 100);
+        buffer.enqueue(1L, changes("Platform", null, null));
+        buffer.enqueue(2L, changes("People", null, null));
+
+        // When
+        buffer.discard(1L);
+        database.remove(2L);
+        buffer.flush();
+
+        // Then
+        assertEquals(0, buffer.pendingCount());
+        assertEquals("IT Department", database.get(1L).getDepartmentName());
+        assertFalse(database.containsKey(2L));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should flush everything on close and reject later writes")
+    void whenClosed_thenFlushAndRejectWrites() {
+        // Given
+        DepartmentWriteBehindBuffer buffer = newBuffer(10, 100);
+        buffer.start(Duration.ofHours(1));
+        buffer.enqueue(1L, changes("Platform", null, null));
+        buffer.enqueue(2L, changes("People", null, null));
+
+        // When
+        buffer.close();
+
+        // Then
+        assertEquals(0, buffer.pendingCount());
+        assertEquals("Platform", database.get(1L).getDepartmentName());
+        assertEquals("People", database.get(2L).getDepartmentName());
+        assertThrows(IllegalStateException.class, () -> buffer.enqueue(1L, changes("Late", null, null)));
+    }
+
+    private DepartmentWriteBehindBuffer newBuffer(int batchSize, int maxPending) {
+        return newBuffer(batchSize, maxPending, Duration.ofSeconds(5));
+    }
+
+    private DepartmentWriteBehindBuffer newBuffer(int batchSize, int maxPending, Duration enqueueTimeout) {
+        return new DepartmentWriteBehindBuffer(
+                departmentRepository, changeVersions, transactionManager, batchSize, maxPending, enqueueTimeout);
+    }
+
+    private static Department changes(String name, String code, String address) {
+        return department(null, name, code, address);
+    }
+
+    private static Department department(Long id, String name, String code, String address) {
+        return Department.builder()
+                .departmentId(id)
+                .departmentName(name)
+                .departmentCode(code)
+                .departmentAddress(address)
+                .build();
+    }
+}
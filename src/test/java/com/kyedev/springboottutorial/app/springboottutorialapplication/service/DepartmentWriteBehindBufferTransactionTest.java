@@ -0,0 +1,117 @@
+package com.kyedev.springboottutorial.app.springboottutorialapplication.service;
+
+import com.kyedev.springboottutorial.app.springboottutorialapplication.entity.Department;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentChangeCounterRepository;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.repository.DepartmentRepository;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentChangeVersions;
+import com.kyedev.springboottutorial.app.springboottutorialapplication.service.impl.DepartmentWriteBehindBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Department Write-Behind Buffer Transaction Tests")
+class DepartmentWriteBehindBufferTransactionTest {
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DepartmentChangeCounterRepository counterRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private DepartmentChangeVersions changeVersions;
+
+    @BeforeEach
+    void setUp() {
+        changeVersions = new DepartmentChangeVersions(counterRepository, transactionManager);
+        changeVersions.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        departmentRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should commit buffered updates even when the writer's transaction rolls back")
+    void whenWriterTransactionRollsBack_thenBufferedUpdatesStayCommitted() {
+        // Given
+        Long itId = save("IT Department").getDepartmentId();
+        Long hrId = save("HR Department").getDepartmentId();
+        Long financeId = save("Finance").getDepartmentId();
+        DepartmentWriteBehindBuffer buffer = new DepartmentWriteBehindBuffer(
+                departmentRepository, changeVersions, transactionManager, 2, 2, Duration.ofSeconds(5));
+        List<String> flushed = new CopyOnWriteArrayList<>();
+        buffer.setFlushListener(department -> flushed.add(department.getDepartmentName()));
+        buffer.start(Duration.ofHours(1));
+
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            buffer.enqueue(itId, changes("Platform"));
+            buffer.enqueue(hrId, changes("People"));
+            // The buffer is full, so this writer waits until the background flusher has taken the first two.
+            buffer.enqueue(financeId, changes("Treasury"));
+            status.setRollbackOnly();
+        });
+        buffer.close();
+
+        // Then
+        assertEquals("Platform", departmentRepository.findById(itId).orElseThrow().getDepartmentName());
+        assertEquals("People", departmentRepository.findById(hrId).orElseThrow().getDepartmentName());
+        assertEquals("Treasury", departmentRepository.findById(financeId).orElseThrow().getDepartmentName());
+        assertEquals(List.of("Platform", "People", "Treasury"), flushed);
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    @DisplayName("Should write buffered updates and skip departments deleted in the meantime")
+    void whenFlushing_thenWriteExistingDepartmentsOnly() {
+        // Given
+        Long itId = save("IT Department").getDepartmentId();
+        Long hrId = save("HR Department").getDepartmentId();
+        DepartmentWriteBehindBuffer buffer = new DepartmentWriteBehindBuffer(
+                departmentRepository, changeVersions, transactionManager, 10, 10, Duration.ofSeconds(5));
+        buffer.enqueue(itId, changes("Platform"));
+        buffer.enqueue(hrId, changes("People"));
+        departmentRepository.deleteById(hrId);
+
+        // When
+        buffer.flush();
+
+        // Then
+        assertEquals(0, buffer.pendingCount());
+        assertEquals("Platform", departmentRepository.findById(itId).orElseThrow().getDepartmentName());
+        assertFalse(departmentRepository.existsById(hrId));
+    }
+
+    private Department save(String name) {
+        return departmentRepository.save(Department.builder()
+                .departmentName(name)
+                .departmentCode("D001")
+                .departmentAddress("Building A")
+                .build());
+    }
+
+    private static Department changes(String name) {
+        return Department.builder()
+                .departmentName(name)
+                .build();
+    }
+}